@@ -0,0 +1,111 @@
+package ipsis.woot.benchmarks;
+
+import ipsis.woot.blockentities.ExporterBlockEntity;
+import net.minecraft.core.NonNullList;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExporterBlockEntity insertion logic against a 27 slot inventory
+ * A plain slot list stands in for the block entity, which needs a level to exist
+ *
+ * full:       every slot holds a full stack of another item - the worst case rejection
+ * fragmented: every other slot holds a partial stack of the inserted item, the rest other items
+ * empty:      nothing in the inventory
+ *
+ * insert changes the inventory, so each call gets its own copy made before the iteration and the
+ * calls are timed as one batch of INSERT_BATCH (the score is per batch). simulate leaves the
+ * inventory alone and shares one copy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExporterInsertBenchmark {
+
+    private static final int INVENTORY_SIZE = 27;
+    private static final int SLOT_LIMIT = 99;
+    private static final int INSERT_BATCH = 10_000;
+
+    @Param({"full", "fragmented", "empty"})
+    public String layout;
+
+    private NonNullList<ItemStack> template;
+    private NonNullList<ItemStack> inventory;
+    private final List<NonNullList<ItemStack>> inventories = new ArrayList<>(INSERT_BATCH);
+    private int next;
+    private ItemStack drop;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        GameBootstrap.init();
+
+        drop = new ItemStack(Items.ROTTEN_FLESH, 24);
+        template = NonNullList.withSize(INVENTORY_SIZE, ItemStack.EMPTY);
+        Item[] others = {Items.BONE, Items.ARROW, Items.STRING, Items.GUNPOWDER};
+
+        for (int slot = 0; slot < INVENTORY_SIZE; slot++) {
+            Item other = others[slot % others.length];
+            switch (layout) {
+                case "full" -> template.set(slot, new ItemStack(other, other.getDefaultMaxStackSize()));
+                case "fragmented" -> template.set(slot, slot % 2 == 0
+                    ? new ItemStack(Items.ROTTEN_FLESH, 63)
+                    : new ItemStack(other, 1));
+                default -> {
+                }
+            }
+        }
+        inventory = copyTemplate();
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        // Each insert starts from the same inventory
+        inventories.clear();
+        for (int i = 0; i < INSERT_BATCH; i++) {
+            inventories.add(copyTemplate());
+        }
+        next = 0;
+    }
+
+    private NonNullList<ItemStack> copyTemplate() {
+        NonNullList<ItemStack> copy = NonNullList.withSize(INVENTORY_SIZE, ItemStack.EMPTY);
+        for (int slot = 0; slot < INVENTORY_SIZE; slot++) {
+            copy.set(slot, template.get(slot).copy());
+        }
+        return copy;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 5, batchSize = INSERT_BATCH)
+    @Measurement(iterations = 20, batchSize = INSERT_BATCH)
+    public ItemStack insert() {
+        return ExporterBlockEntity.insertItem(inventories.get(next++), SLOT_LIMIT, drop, false);
+    }
+
+    @Benchmark
+    public ItemStack simulate() {
+        return ExporterBlockEntity.insertItem(inventory, SLOT_LIMIT, drop, true);
+    }
+}
@@ -0,0 +1,65 @@
+package ipsis.woot.benchmarks;
+
+import ipsis.woot.farming.EnumFarmUpgrade;
+import ipsis.woot.power.PowerRecipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PowerRecipe math and EnumFarmUpgrade multiplier resolution, as done when a farm setup is built
+ * and on every tick of a running cycle
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FactoryMathBenchmark {
+
+    private PowerRecipe recipe;
+    private long consumedPower;
+
+    @Setup
+    public void setup() {
+        recipe = PowerRecipe.forTier(3, 80);
+        consumedPower = recipe.getTotalPower() / 3;
+    }
+
+    @Benchmark
+    public PowerRecipe powerRecipeForTier() {
+        return PowerRecipe.forTier(4, EnumFarmUpgrade.RATE.getSpawnRateTicks(2, 320));
+    }
+
+    @Benchmark
+    public void powerRecipeProgress(Blackhole blackhole) {
+        blackhole.consume(recipe.getProgress(consumedPower));
+        blackhole.consume(recipe.getRemainingTicks(consumedPower));
+        blackhole.consume(recipe.isComplete(consumedPower));
+    }
+
+    @Benchmark
+    public void upgradeMultipliers(Blackhole blackhole) {
+        for (EnumFarmUpgrade upgrade : EnumFarmUpgrade.values()) {
+            for (int tier = 1; tier <= upgrade.getMaxTier(); tier++) {
+                blackhole.consume(upgrade.getPowerCostPerTick(tier));
+                blackhole.consume(upgrade.getLootingLevel(tier));
+                blackhole.consume(upgrade.getMassCount(tier));
+                blackhole.consume(upgrade.getEfficiencyMultiplier(tier));
+                blackhole.consume(upgrade.getXPMultiplier(tier));
+                blackhole.consume(upgrade.getDecapitateChance(tier));
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ipsis.woot.benchmarks;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+
+/**
+ * Loads the vanilla registries so benchmarks can create real ItemStacks
+ * No level, server or mod loading - anything needing those uses a stand-in
+ */
+public final class GameBootstrap {
+
+    private static boolean done = false;
+
+    private GameBootstrap() {
+    }
+
+    public static synchronized void init() {
+        if (!done) {
+            SharedConstants.tryDetectVersion();
+            Bootstrap.bootStrap();
+            done = true;
+        }
+    }
+}
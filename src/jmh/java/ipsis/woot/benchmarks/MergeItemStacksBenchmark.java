@@ -0,0 +1,70 @@
+package ipsis.woot.benchmarks;
+
+import ipsis.woot.util.LootHelper;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LootHelper.mergeItemStacks on the unmerged drops of a spawn cycle
+ * Drop lists look like a zombie/skeleton cycle: a few distinct items, one small stack per mob each
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MergeItemStacksBenchmark {
+
+    // Mass upgrade tiers: 1, 4, 6, 8 mobs - and a large modded mass count
+    @Param({"1", "8", "64"})
+    public int mobCount;
+
+    // Distinct drops in the table
+    @Param({"3", "12"})
+    public int distinctItems;
+
+    private List<ItemStack> drops;
+
+    private static final Item[] ITEMS = {
+        Items.ROTTEN_FLESH, Items.BONE, Items.ARROW, Items.IRON_INGOT, Items.CARROT, Items.POTATO,
+        Items.GUNPOWDER, Items.STRING, Items.SPIDER_EYE, Items.ENDER_PEARL, Items.BLAZE_ROD, Items.GOLD_NUGGET
+    };
+
+    @Setup
+    public void setup() {
+        GameBootstrap.init();
+
+        Random random = new Random(42);
+        drops = new ArrayList<>();
+        for (int mob = 0; mob < mobCount; mob++) {
+            for (int i = 0; i < distinctItems; i++) {
+                if (random.nextInt(3) > 0) {
+                    drops.add(new ItemStack(ITEMS[i], 1 + random.nextInt(3)));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<ItemStack> merge() {
+        return LootHelper.mergeItemStacks(drops);
+    }
+}
@@ -0,0 +1,80 @@
+package ipsis.woot.benchmarks;
+
+import ipsis.woot.multiblock.EnumMobFactoryModule;
+import ipsis.woot.multiblock.EnumMobFactoryTier;
+import ipsis.woot.multiblock.FactoryPatternRepository;
+import net.minecraft.core.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FactoryPatternRepository getModule/isValid over every position of a tier's bounding box,
+ * i.e. the lookups of one full structure check
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatternLookupBenchmark {
+
+    @Param({"TIER_I", "TIER_IV"})
+    public EnumMobFactoryTier tier;
+
+    private FactoryPatternRepository repository;
+    private BlockPos[] offsets;
+    private EnumMobFactoryModule[] expected;
+
+    @Setup
+    public void setup() {
+        repository = new FactoryPatternRepository();
+
+        // Every module position plus the empty positions around them
+        List<BlockPos> positions = new ArrayList<>();
+        int xz = repository.getMaxXZOffset();
+        int y = repository.getMaxYOffset();
+        for (int dy = -y; dy <= y; dy++) {
+            for (int dx = -xz; dx <= xz; dx++) {
+                for (int dz = -xz; dz <= xz; dz++) {
+                    positions.add(new BlockPos(dx, dy, dz));
+                }
+            }
+        }
+
+        offsets = positions.toArray(new BlockPos[0]);
+        expected = new EnumMobFactoryModule[offsets.length];
+        for (int i = 0; i < offsets.length; i++) {
+            EnumMobFactoryModule module = repository.getModule(tier, offsets[i]);
+            expected[i] = module != null ? module : EnumMobFactoryModule.STRUCTURE_BLOCK_1;
+        }
+    }
+
+    @Benchmark
+    public void getModule(Blackhole blackhole) {
+        for (BlockPos offset : offsets) {
+            blackhole.consume(repository.getModule(tier, offset));
+        }
+    }
+
+    @Benchmark
+    public void isValid(Blackhole blackhole) {
+        for (int i = 0; i < offsets.length; i++) {
+            blackhole.consume(repository.isValid(tier, expected[i], offsets[i]));
+        }
+    }
+}
@@ -108,6 +108,25 @@ public class ExporterBlockEntity extends BlockEntity implements Container {
      */
     @Nonnull
     public ItemStack insertItem(@Nonnull ItemStack stack, boolean simulate) {
+        ItemStack remaining = insertItem(inventory, getMaxStackSize(), stack, simulate);
+
+        if (!simulate && remaining.getCount() != stack.getCount()) {
+            setChanged();
+        }
+
+        return remaining;
+    }
+
+    /**
+     * Insert an item into a list of slots, stacking onto matching items first
+     * Kept separate from the block entity so benchmarks can run it against a plain list
+     *
+     * @param slotLimit Maximum stack size of a slot
+     * @return The remaining stack that couldn't be inserted
+     */
+    @Nonnull
+    public static ItemStack insertItem(@Nonnull NonNullList<ItemStack> inventory, int slotLimit,
+                                       @Nonnull ItemStack stack, boolean simulate) {
         if (stack.isEmpty()) {
             return ItemStack.EMPTY;
         }
@@ -118,7 +137,7 @@ public class ExporterBlockEntity extends BlockEntity implements Container {
         for (int slot = 0; slot < inventory.size() && !remaining.isEmpty(); slot++) {
             ItemStack existing = inventory.get(slot);
             if (!existing.isEmpty() && ItemStack.isSameItemSameComponents(existing, remaining)) {
-                int maxStack = Math.min(existing.getMaxStackSize(), getMaxStackSize());
+                int maxStack = Math.min(existing.getMaxStackSize(), slotLimit);
                 int canAdd = maxStack - existing.getCount();
                 if (canAdd > 0) {
                     int toAdd = Math.min(canAdd, remaining.getCount());
@@ -133,7 +152,7 @@ public class ExporterBlockEntity extends BlockEntity implements Container {
         // Second pass: try to insert into empty slots
         for (int slot = 0; slot < inventory.size() && !remaining.isEmpty(); slot++) {
             if (inventory.get(slot).isEmpty()) {
-                int maxStack = Math.min(remaining.getMaxStackSize(), getMaxStackSize());
+                int maxStack = Math.min(remaining.getMaxStackSize(), slotLimit);
                 int toInsert = Math.min(remaining.getCount(), maxStack);
                 if (!simulate) {
                     inventory.set(slot, remaining.split(toInsert));
@@ -143,10 +162,6 @@ public class ExporterBlockEntity extends BlockEntity implements Container {
             }
         }
 
-        if (!simulate && remaining.getCount() != stack.getCount()) {
-            setChanged();
-        }
-
         return remaining;
     }
 
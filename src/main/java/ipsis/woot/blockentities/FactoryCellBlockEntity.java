@@ -2,15 +2,19 @@ package ipsis.woot.blockentities;
 
 import ipsis.woot.blocks.FactoryCellBlock;
 import ipsis.woot.farmblocks.FactoryGlue;
+import ipsis.woot.farming.FactoryHeartRegistry;
 import ipsis.woot.farmblocks.IFactoryGlue;
 import ipsis.woot.farmblocks.IFactoryGlueProvider;
+import ipsis.woot.power.EnergyPool;
 import ipsis.woot.power.FactoryEnergyStorage;
+import ipsis.woot.util.EwmaMeter;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.game.ClientGamePacketListener;
 import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
@@ -22,7 +26,9 @@ import javax.annotation.Nullable;
 /**
  * Factory Cell Block Entity - Power Storage
  * Stores RF/FE energy for the multiblock factory
- * Phase 1: Basic structure, will be expanded in Phase 2 with heart aggregation
+ *
+ * While part of a formed factory the cell's energy is moved into the heart's EnergyPool and the
+ * cell's capability becomes a view of the pool; it gets its share back when it leaves the pool.
  */
 public class FactoryCellBlockEntity extends BlockEntity implements IFactoryGlueProvider {
 
@@ -38,6 +44,15 @@ public class FactoryCellBlockEntity extends BlockEntity implements IFactoryGlueP
     // Energy storage
     private FactoryEnergyStorage energyStorage;
 
+    // The heart's pool while part of a formed factory (not saved - the heart attaches its cells again)
+    @Nullable
+    private EnergyPool pool = null;
+    @Nullable
+    private IEnergyStorage poolView = null;
+
+    // RF/t received through this cell (not saved)
+    private final EwmaMeter energyIn = new EwmaMeter(100);
+
     // Cell tier (1-4)
     private int tier = 1;
 
@@ -63,8 +78,43 @@ public class FactoryCellBlockEntity extends BlockEntity implements IFactoryGlueP
      */
     private FactoryEnergyStorage createEnergyStorage(int tier) {
         int capacity = getCapacityForTier(tier);
-        int maxTransfer = Math.min(10000, capacity / 10); // 10% of capacity or 10K RF/t
-        return new FactoryEnergyStorage(capacity, maxTransfer, maxTransfer); // Can receive and extract
+        int maxTransfer = getMaxTransferForTier(tier);
+        return new FactoryEnergyStorage(capacity, maxTransfer, maxTransfer) { // Can receive and extract
+            @Override
+            public int receiveEnergy(int maxReceive, boolean simulate) {
+                int received = super.receiveEnergy(maxReceive, simulate);
+                if (received > 0 && !simulate) {
+                    onEnergyReceived(received);
+                }
+                return received;
+            }
+        };
+    }
+
+    /**
+     * Meter the energy and pass it on to the heart - it may be dormant waiting for power
+     */
+    private void onEnergyReceived(int amount) {
+        if (level == null || level.isClientSide()) {
+            return;
+        }
+
+        energyIn.add(level.getGameTime(), amount);
+        if (factoryGlue.getMaster() == null) {
+            return;
+        }
+
+        FactoryHeartBlockEntity heart = getHeart();
+        if (heart != null) {
+            heart.onEnergyReceived(amount);
+        }
+    }
+
+    /**
+     * Average RF/t received through this cell
+     */
+    public double getEnergyInPerTick() {
+        return level != null ? energyIn.get(level.getGameTime()) : 0.0;
     }
 
     /**
@@ -80,6 +130,13 @@ public class FactoryCellBlockEntity extends BlockEntity implements IFactoryGlueP
         };
     }
 
+    /**
+     * Get the transfer limit for a specific tier
+     */
+    public static int getMaxTransferForTier(int tier) {
+        return Math.min(10000, getCapacityForTier(tier) / 10); // 10% of capacity or 10K RF/t
+    }
+
     /**
      * Server tick - main update loop
      */
@@ -130,7 +187,54 @@ public class FactoryCellBlockEntity extends BlockEntity implements IFactoryGlueP
      */
     @Nonnull
     public IEnergyStorage getEnergyStorage() {
-        return energyStorage;
+        return poolView != null ? poolView : energyStorage;
+    }
+
+    /**
+     * Move this cell's energy into a formed factory's pool
+     * The pool's capacity must already include this cell, anything it cannot take stays in the cell
+     */
+    public void joinPool(@Nonnull EnergyPool pool) {
+        if (this.pool == pool) {
+            return;
+        }
+
+        long deposited = pool.deposit(energyStorage.getEnergyStored(), false);
+        int maxTransfer = getMaxTransferForTier(tier);
+        this.pool = pool;
+        this.poolView = pool.createView(maxTransfer, maxTransfer, this::onEnergyReceived);
+        invalidateCapabilities();
+        if (deposited > 0) {
+            energyStorage.modifyEnergyStored((int) -deposited);
+            setChanged();
+        }
+    }
+
+    /**
+     * Leave the pool, adding a share of its energy to the cell's own
+     */
+    public void leavePool(int energy) {
+        pool = null;
+        poolView = null;
+        invalidateCapabilities();
+        if (energy > 0) {
+            energyStorage.modifyEnergyStored(energy);
+            setChanged();
+        }
+    }
+
+    /**
+     * Room left in this cell's own storage for a share of the pool
+     */
+    public int getFreeCapacity() {
+        return energyStorage.getMaxEnergyStored() - energyStorage.getEnergyStored();
+    }
+
+    /**
+     * Capacity of this cell on its own, whether pooled or not
+     */
+    public int getCellCapacity() {
+        return energyStorage.getMaxEnergyStored();
     }
 
     /**
@@ -189,21 +293,42 @@ public class FactoryCellBlockEntity extends BlockEntity implements IFactoryGlueP
      * Get energy stored
      */
     public int getEnergyStored() {
-        return energyStorage.getEnergyStored();
+        return getEnergyStorage().getEnergyStored();
     }
 
     /**
      * Get max energy capacity
      */
     public int getMaxEnergyStored() {
-        return energyStorage.getMaxEnergyStored();
+        return getEnergyStorage().getMaxEnergyStored();
     }
 
     /**
      * Get fill percentage (0.0 to 1.0)
      */
     public float getFillPercentage() {
-        return energyStorage.getFillPercentage();
+        int capacity = getMaxEnergyStored();
+        return capacity > 0 ? (float) getEnergyStored() / (float) capacity : 0.0f;
+    }
+
+    /**
+     * A cell reloaded next to a loaded, formed heart joins its pool again
+     * The heart only attaches its cells when it forms, so it would not notice this cell coming back
+     */
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        if (level instanceof ServerLevel serverLevel) {
+            FactoryHeartRegistry registry = FactoryHeartRegistry.find(serverLevel);
+            if (registry != null) {
+                // Cells sit right by their heart (see FarmScanner)
+                registry.forEachNear(worldPosition, 2, 2, heart -> {
+                    if (pool == null) {
+                        heart.rejoinPool(this);
+                    }
+                });
+            }
+        }
     }
 
     @Override
@@ -211,6 +336,7 @@ public class FactoryCellBlockEntity extends BlockEntity implements IFactoryGlueP
         super.saveAdditional(tag, registries);
 
         tag.putInt("Tier", tier);
+        // Pooled energy is saved by the heart
         tag.putInt("Energy", energyStorage.getEnergyStored());
 
         // Save heart position
@@ -264,7 +390,7 @@ public class FactoryCellBlockEntity extends BlockEntity implements IFactoryGlueP
     public CompoundTag getUpdateTag(@Nonnull HolderLookup.Provider registries) {
         CompoundTag tag = super.getUpdateTag(registries);
         tag.putBoolean("IsFormed", isFormed());
-        tag.putInt("Energy", energyStorage.getEnergyStored());
+        tag.putInt("Energy", getEnergyStored());
         return tag;
     }
 
@@ -87,6 +87,7 @@ public class FactoryControllerBlockEntity extends BlockEntity implements IFactor
         this.programmedMob = shardData;
         setChanged();
         sync();
+        notifyHeart();
 
         Woot.LOGGER.debug("Controller at {} programmed with mob: {}",
             worldPosition, shardData.displayName());
@@ -102,6 +103,21 @@ public class FactoryControllerBlockEntity extends BlockEntity implements IFactor
             this.programmedMob = null;
             setChanged();
             sync();
+            notifyHeart();
+        }
+    }
+
+    /**
+     * Tell the connected heart that the programming changed so it revalidates and wakes
+     */
+    private void notifyHeart() {
+        if (level == null || level.isClientSide()) {
+            return;
+        }
+
+        BlockPos masterPos = factoryGlue.getMaster();
+        if (masterPos != null && level.getBlockEntity(masterPos) instanceof FactoryHeartBlockEntity heart) {
+            heart.markStructureDirty(worldPosition);
         }
     }
 
@@ -2,16 +2,31 @@ package ipsis.woot.blockentities;
 
 import ipsis.woot.Woot;
 import ipsis.woot.farmblocks.FactoryGlue;
+import ipsis.woot.farming.CycleJournal;
+import ipsis.woot.farming.CycleJournalFile;
+import ipsis.woot.farming.FactoryHeartRegistry;
+import ipsis.woot.farming.FactoryRules;
+import ipsis.woot.farming.FactoryScheduler;
 import ipsis.woot.farmblocks.IFactoryGlue;
 import ipsis.woot.farmblocks.IFactoryGlueProvider;
+import ipsis.woot.farmstructure.FactoryOwnershipMap;
 import ipsis.woot.farmstructure.FarmSetup;
 import ipsis.woot.farmstructure.FarmStructure;
 import ipsis.woot.farmstructure.IFarmStructure;
 import ipsis.woot.gui.FactoryHeartMenu;
 import ipsis.woot.gui.data.FarmUIInfo;
-import ipsis.woot.power.FactoryEnergyStorage;
+import ipsis.woot.jfr.ExporterInsertEvent;
+import ipsis.woot.jfr.IngredientConsumeEvent;
+import ipsis.woot.jfr.SpawnCycleEvent;
+import ipsis.woot.loot.LootJob;
+import ipsis.woot.loot.LootPipeline;
+import ipsis.woot.power.EnergyPool;
 import ipsis.woot.power.PowerRecipe;
+import ipsis.woot.util.EwmaMeter;
+import ipsis.woot.util.FactoryRolls;
 import ipsis.woot.util.LootHelper;
+import ipsis.woot.util.RandomSourceGenerator;
+import ipsis.woot.util.WootBlockNotifier;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.core.registries.BuiltInRegistries;
@@ -34,9 +49,11 @@ import net.neoforged.neoforge.energy.IEnergyStorage;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.random.RandomGenerator;
 
 /**
  * Factory Heart Block Entity - Main Controller
@@ -52,8 +69,13 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
     private IFarmStructure farmStructure = null;
     private FarmSetup farmSetup = null;
 
-    // Energy storage - aggregated from cells
-    private FactoryEnergyStorage energyStorage;
+    // Energy of all formed cells, the cells are views of it
+    private final EnergyPool energyPool = new EnergyPool();
+    private IEnergyStorage energyStorage = energyPool.createView(0, 0, null);
+    // Cells holding a share of the pool (saved, so the shares can be handed back after a reload)
+    private List<BlockPos> pooledCells = List.of();
+    // Whether the pooled cells are using the pool as their storage (not saved - attached again on forming)
+    private boolean cellsAttached = false;
 
     // Power recipe - defines requirements for spawning
     private PowerRecipe powerRecipe;
@@ -63,6 +85,46 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
     private int tickCounter = 0;
     private boolean isRunning = false;
 
+    // Scheduling - game time of the last scheduler visit, used to catch up on skipped ticks
+    private static final int MAX_CATCH_UP_TICKS = 20;
+    private long lastScheduledTick = -1;
+
+    // Dormant hearts are parked by the scheduler until a wake event arrives
+    private boolean dormant = false;
+    private boolean awaitingIngredients = false;
+
+    // Analytic accrual - while the cells hold enough power for the rest of the cycle, progress is
+    // base + (gameTime - start) * rate and the cells are only drained when the accrual is settled
+    private long accrualStart = -1;
+    private long accrualBase = 0;
+    private int accrualRate = 0;
+    // Burst mode - power withdrawn up front for the accrual, 0 when it is drained at the end
+    private long accrualPrepaid = 0;
+
+    // Accrued power saved to NBT but not yet drained from the cells
+    private long unpaidPower = 0;
+
+    // Loot being generated for a paid-for cycle, collected on a later tick
+    @Nullable
+    private LootJob pendingLoot = null;
+
+    // Recent spawn cycles, and the game time the current cycle first drew power (-1 if not known)
+    private final CycleJournal journal = new CycleJournal();
+    private long cycleStartTime = -1;
+    private long completedCycles = 0;
+
+    // Flow meters (not saved) - RF/t in and out, share of ticks stalled on power, cycles per tick
+    private final EwmaMeter energyIn = new EwmaMeter(100);
+    private final EwmaMeter energyOut = new EwmaMeter(100);
+    private final EwmaMeter powerStall = new EwmaMeter(200);
+    private final EwmaMeter cycleRate = new EwmaMeter(1200);
+    // Accrued power already counted by the energy out meter
+    private long accrualMetered = 0;
+    private int comparatorSignal = 0;
+
+    // Whether the last cycle's drops could not all be output (not saved)
+    private boolean outputBlocked = false;
+
     // Drop tracking for GUI (last spawn cycle)
     private List<ItemStack> lastDrops = new ArrayList<>();
 
@@ -74,22 +136,42 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
     public FactoryHeartBlockEntity(BlockPos pos, BlockState state) {
         super(WootBlockEntities.FACTORY_HEART.get(), pos, state);
 
-        // Default energy storage (will be updated from farmSetup)
-        this.energyStorage = new FactoryEnergyStorage(100000, 1000, 0);
-
         // Default power recipe
         this.powerRecipe = PowerRecipe.createDefault();
     }
 
+    /**
+     * Called by the FactoryScheduler when this heart gets its turn
+     * Hearts deferred by the tick budget run the ticks they missed, capped at MAX_CATCH_UP_TICKS
+     */
+    public void runScheduledTick(ServerLevel level, long gameTime) {
+        int elapsed = 1;
+        if (lastScheduledTick >= 0) {
+            elapsed = (int) Math.max(1, Math.min(MAX_CATCH_UP_TICKS, gameTime - lastScheduledTick));
+        }
+        lastScheduledTick = gameTime;
+
+        serverTick(level, worldPosition, getBlockState(), this, elapsed);
+    }
+
+    /**
+     * Called by the FactoryScheduler instead of runScheduledTick while the heart's chunk is not
+     * ticking blocks - the skipped ticks are not caught up
+     */
+    public void skipScheduledTick() {
+        lastScheduledTick = -1;
+    }
+
     /**
      * Server tick - main update loop
+     * @param elapsed number of game ticks covered by this update
      */
-    public static void serverTick(Level level, BlockPos pos, BlockState state, FactoryHeartBlockEntity blockEntity) {
+    public static void serverTick(Level level, BlockPos pos, BlockState state, FactoryHeartBlockEntity blockEntity, int elapsed) {
         if (level.isClientSide()) {
             return;
         }
 
-        blockEntity.tickCounter++;
+        blockEntity.tickCounter += elapsed;
 
         // Initialize farm structure on first tick
         if (blockEntity.farmStructure == null) {
@@ -108,68 +190,121 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
             blockEntity.farmStructure.clearChanged();
         }
 
-        // Update aggregated energy every 20 ticks for GUI display
-        if (blockEntity.tickCounter % 20 == 0) {
-            blockEntity.updateAggregatedEnergy();
-        }
-
-        // Debug logging
-        if (blockEntity.tickCounter % 100 == 0) {
-            boolean formed = blockEntity.isFormed();
-            boolean canProcess = blockEntity.canProcess();
-            if (formed) {
-                Woot.LOGGER.info("Factory Heart at {} - Formed: {}, Programmed: {}, CanProcess: {}, Running: {}, Power: {}/{}, Energy: {}/{}",
-                    pos, formed,
-                    blockEntity.farmSetup != null && blockEntity.farmSetup.isProgrammed(),
-                    canProcess,
-                    blockEntity.isRunning,
-                    blockEntity.consumedPower, blockEntity.powerRecipe.getTotalPower(),
-                    blockEntity.energyStorage.getEnergyStored(), blockEntity.energyStorage.getMaxEnergyStored());
-
-                // Extra debug if not processing
-                if (!canProcess) {
-                    if (blockEntity.farmSetup == null) {
-                        Woot.LOGGER.warn("  -> Cannot process: farmSetup is null");
-                    } else if (!blockEntity.farmSetup.isProgrammed()) {
-                        Woot.LOGGER.warn("  -> Cannot process: not programmed with mob");
-                    } else if (blockEntity.energyStorage.getEnergyStored() <= 0) {
-                        Woot.LOGGER.warn("  -> Cannot process: no energy stored");
-                    }
-                }
-            }
+        // Pay for power accrued before the last save
+        if (blockEntity.unpaidPower > 0) {
+            blockEntity.payUnpaidPower();
         }
 
         // Factory processing logic
-        if (blockEntity.canProcess()) {
-            blockEntity.process((ServerLevel) level);
+        if (blockEntity.pendingLoot != null) {
+            // Cycle is waiting for its drops
+            if (blockEntity.pendingLoot.isDone()) {
+                blockEntity.collectPendingLoot();
+            }
+        } else if (blockEntity.isAccruing()) {
+            // Cycle inputs only change through structure changes, which settle the accrual
+            blockEntity.meterStall(false);
+            blockEntity.tickAccrual((ServerLevel) level);
+        } else if (blockEntity.farmStructure.isValidating()) {
+            blockEntity.awaitStructureScan((ServerLevel) level);
+        } else if (blockEntity.awaitingIngredients) {
+            // Cycle is paid for - only an importer update or structure change can help
+            blockEntity.meterStall(false);
+            blockEntity.dormant = true;
+        } else if (blockEntity.canProcess()) {
+            blockEntity.process((ServerLevel) level, elapsed);
         } else {
+            // Nothing can change until a wake event arrives
+            blockEntity.meterStall(blockEntity.isStalledOnPower());
             blockEntity.stopProcessing();
+            blockEntity.dormant = true;
         }
+
+        blockEntity.updateComparatorSignal();
     }
 
     /**
-     * Update aggregated energy from cells for GUI display
+     * Wait for a structure scan - park until its quiet window or backoff is over, but stay
+     * awake while the scan is running so its result is picked up on the next tick
      */
-    private void updateAggregatedEnergy() {
-        if (farmSetup == null) {
-            return;
+    private void awaitStructureScan(ServerLevel level) {
+        long due = farmStructure.getScanDueTick();
+        if (due > level.getGameTime()) {
+            dormant = true;
+            FactoryScheduler.get(level).wakeAt(this, due);
         }
+    }
 
-        int totalCapacity = 0;
-        int totalStored = 0;
+    /**
+     * Attach the cells of a setup to the energy pool, sizing it to their total capacity
+     */
+    private void attachCells(@Nonnull List<BlockPos> cellPositions) {
+        List<FactoryCellBlockEntity> cells = new ArrayList<>();
+        long capacity = 0;
+        for (BlockPos cellPos : cellPositions) {
+            if (level.getBlockEntity(cellPos) instanceof FactoryCellBlockEntity cell) {
+                cells.add(cell);
+                capacity += cell.getCellCapacity();
+            }
+        }
 
-        for (BlockPos cellPos : farmSetup.getCellPositions()) {
-            BlockEntity be = level.getBlockEntity(cellPos);
-            if (be instanceof FactoryCellBlockEntity cell) {
-                totalCapacity += cell.getMaxEnergyStored();
-                totalStored += cell.getEnergyStored();
+        energyPool.setCapacity(capacity);
+        for (FactoryCellBlockEntity cell : cells) {
+            cell.joinPool(energyPool);
+        }
+        pooledCells = List.copyOf(cellPositions);
+        cellsAttached = true;
+        energyStorage = energyPool.createView(EnergyPool.saturate(capacity / 10), 0, this::onEnergyReceived);
+        setChanged();
+    }
+
+    /**
+     * Hand the pooled energy back to the pooled cells, filling them in order
+     * Whatever the remaining cells cannot hold (a cell was broken) stays in the pool
+     */
+    private void detachCells() {
+        cellsAttached = false;
+        for (BlockPos cellPos : pooledCells) {
+            if (level.getBlockEntity(cellPos) instanceof FactoryCellBlockEntity cell) {
+                long share = energyPool.withdraw(cell.getFreeCapacity(), false);
+                cell.leavePool((int) share);
+            }
+        }
+        pooledCells = List.of();
+        energyStorage = energyPool.createView(0, 0, null);
+    }
+
+    /**
+     * Take the pool away from the loaded cells without handing any energy back
+     * Used when the heart goes away with its chunk - the pool is saved with the heart and the
+     * cells fall back to their own storage, which is paid into the pool when they are attached again
+     */
+    private void releaseCells() {
+        if (!cellsAttached) {
+            return;
+        }
+
+        cellsAttached = false;
+        for (BlockPos cellPos : pooledCells) {
+            // Never load a chunk while this one is unloading
+            if (level.isLoaded(cellPos) && level.getBlockEntity(cellPos) instanceof FactoryCellBlockEntity cell) {
+                cell.leavePool(0);
             }
         }
+    }
 
-        // Recreate aggregated energy storage with current values
-        if (totalCapacity > 0) {
-            energyStorage = new FactoryEnergyStorage(totalCapacity, totalCapacity / 10, 0, totalStored);
+    /**
+     * Attach a pooled cell again after its chunk was reloaded
+     *
+     * @return false if the cell is not part of this heart's pool
+     */
+    public boolean rejoinPool(@Nonnull FactoryCellBlockEntity cell) {
+        if (!cellsAttached || isRemoved() || !pooledCells.contains(cell.getBlockPos())) {
+            return false;
         }
+
+        cell.joinPool(energyPool);
+        return true;
     }
 
     /**
@@ -186,14 +321,24 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
         }
 
         // Check if we have stored energy available
-        return energyStorage.getEnergyStored() > 0;
+        return energyPool.getStored() > 0;
+    }
+
+    /**
+     * Check if the factory is ready to run apart from having no power
+     */
+    private boolean isStalledOnPower() {
+        return farmSetup != null && farmSetup.isProgrammed() && isTierSufficient() && energyPool.getStored() <= 0;
     }
 
     /**
-     * Process one tick of factory operation
+     * Process factory operation for the elapsed ticks
      */
-    private void process(ServerLevel level) {
+    private void process(ServerLevel level, int elapsed) {
         isRunning = true;
+        if (consumedPower == 0 && cycleStartTime < 0) {
+            cycleStartTime = level.getGameTime();
+        }
 
         // Try to consume power
         long totalPower = powerRecipe.getTotalPower();
@@ -201,15 +346,39 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
 
         if (remainingPower > 0) {
             // Still need more power - consume per tick
-            // Apply efficiency multiplier and add upgrade power costs
-            int basePowerPerTick = powerRecipe.getPowerPerTick();
-            float efficiencyMultiplier = farmSetup.getEfficiencyMultiplier();
-            int upgradePowerCost = ipsis.woot.config.WootConfig.ENABLE_UPGRADE_POWER_COSTS.get()
-                ? farmSetup.getTotalUpgradePowerCost()
-                : 0;
-            int powerPerTick = (int)(basePowerPerTick * efficiencyMultiplier) + upgradePowerCost;
+            int powerPerTick = getAdjustedPowerPerTick();
+
+            // Enough power banked for the rest of the cycle - accrue it analytically instead
+            if (ipsis.woot.config.WootConfig.ANALYTIC_POWER_ACCRUAL.get()
+                    && powerPerTick > 0 && energyPool.getStored() >= remainingPower) {
+                meterStall(false);
+
+                // Burst mode - pay the rest of the cycle in one go
+                if (ipsis.woot.config.WootConfig.BURST_POWER.get()) {
+                    long paid = drainPool(remainingPower);
+                    if (ipsis.woot.config.WootConfig.BURST_FAST_COMPLETE.get()) {
+                        // One cycle per visit whatever the elapsed ticks - every cycle needs its own
+                        // ingredients and the drops of the last one collected first
+                        energyOut.add(level.getGameTime(), paid);
+                        consumedPower += paid;
+                        completeSpawnCycle(level);
+                        return;
+                    }
+                    startAccrual(level, powerPerTick, paid);
+                    return;
+                }
+
+                startAccrual(level, powerPerTick, 0);
+                return;
+            }
+
+            // Never draw more ticks than the cycle still needs
+            long ticksNeeded = powerPerTick > 0 ? (remainingPower + powerPerTick - 1) / powerPerTick : 1;
+            long request = (long) powerPerTick * Math.min(elapsed, ticksNeeded);
 
-            int extracted = extractEnergyFromCells(powerPerTick);
+            long extracted = drainPool(request);
+            energyOut.add(level.getGameTime(), extracted);
+            meterStall(extracted < request);
 
             if (extracted > 0) {
                 consumedPower += extracted;
@@ -224,35 +393,136 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
     }
 
     /**
-     * Extract energy from the physical cell blocks
+     * Power drawn per tick - recipe power with the efficiency multiplier plus upgrade power costs
      */
-    private int extractEnergyFromCells(int amount) {
-        if (farmSetup == null) {
+    private int getAdjustedPowerPerTick() {
+        float efficiencyMultiplier = farmSetup.getEfficiencyMultiplier();
+        int upgradePowerCost = ipsis.woot.config.WootConfig.ENABLE_UPGRADE_POWER_COSTS.get()
+            ? farmSetup.getTotalUpgradePowerCost()
+            : 0;
+        return FactoryRules.getPowerPerTick(powerRecipe, efficiencyMultiplier, upgradePowerCost);
+    }
+
+    /**
+     * Accrue the rest of the cycle analytically
+     *
+     * @param prepaid Power already withdrawn for it (burst mode), 0 to drain when settled
+     */
+    private void startAccrual(ServerLevel level, int powerPerTick, long prepaid) {
+        // This tick counts towards the cycle, as it would in per-tick mode
+        accrualStart = level.getGameTime() - 1;
+        accrualBase = consumedPower;
+        accrualRate = powerPerTick;
+        accrualPrepaid = prepaid;
+        accrualMetered = 0;
+        tickAccrual(level);
+    }
+
+    /**
+     * Check if the current cycle is being accrued analytically
+     */
+    private boolean isAccruing() {
+        return accrualStart >= 0;
+    }
+
+    /**
+     * Power accrued since the accrual started (not yet drained from the cells)
+     */
+    private long getUnsettledPower() {
+        if (!isAccruing() || level == null) {
             return 0;
         }
+        long accrued = (level.getGameTime() - accrualStart) * accrualRate;
+        return Math.max(0, Math.min(powerRecipe.getTotalPower() - accrualBase, accrued));
+    }
 
-        int remaining = amount;
-        List<BlockPos> cellPositions = farmSetup.getCellPositions();
-
-        // Extract from cells until we have enough or run out
-        for (BlockPos cellPos : cellPositions) {
-            if (remaining <= 0) {
-                break;
+    /**
+     * Accrual step - only does real work when the cycle completes or the cells run short
+     */
+    private void tickAccrual(ServerLevel level) {
+        meterAccrual();
+        long reservation = powerRecipe.getTotalPower() - accrualBase;
+
+        if (getUnsettledPower() >= reservation) {
+            settleAccrual();
+            if (consumedPower >= powerRecipe.getTotalPower()) {
+                completeSpawnCycle(level);
             }
+        } else if (accrualPrepaid == 0 && energyPool.getStored() < reservation) {
+            // Something else drained the cells - pay what we owe and go back to per-tick mode
+            settleAccrual();
+        }
+    }
+
+    /**
+     * Drain the accrued power from the cells and leave accrual mode
+     * A prepaid accrual refunds the power it has not used yet instead
+     */
+    private void settleAccrual() {
+        if (!isAccruing()) {
+            return;
+        }
 
-            BlockEntity be = level.getBlockEntity(cellPos);
-            if (be instanceof FactoryCellBlockEntity cell) {
-                IEnergyStorage cellStorage = cell.getEnergyStorage();
-                int extracted = cellStorage.extractEnergy(remaining, false);
-                remaining -= extracted;
+        meterAccrual();
+        long accrued = getUnsettledPower();
+        if (accrualPrepaid > 0) {
+            energyPool.deposit(accrualPrepaid - accrued, false);
+            consumedPower = accrualBase + accrued;
+        } else {
+            consumedPower = accrualBase + drainPool(accrued);
+        }
+        accrualStart = -1;
+        accrualPrepaid = 0;
+        accrualMetered = 0;
+        setChanged();
+    }
 
-                if (extracted > 0) {
-                    cell.setChanged();
-                }
-            }
+    /**
+     * Count the power accrued since the last call as energy out
+     */
+    private void meterAccrual() {
+        if (level == null) {
+            return;
         }
+        long unsettled = getUnsettledPower();
+        energyOut.add(level.getGameTime(), unsettled - accrualMetered);
+        accrualMetered = unsettled;
+    }
+
+    /**
+     * Record whether this tick was held up by a lack of power, the level is kept while dormant
+     */
+    private void meterStall(boolean stalled) {
+        powerStall.setLevel(level.getGameTime(), stalled ? 1.0 : 0.0);
+    }
+
+    /**
+     * Prepaid power the current accrual has not used yet
+     */
+    private long getUnusedPrepaidPower() {
+        return accrualPrepaid > 0 ? accrualPrepaid - getUnsettledPower() : 0;
+    }
+
+    /**
+     * Drain power accrued before the last save from the restored pool
+     */
+    private void payUnpaidPower() {
+        long paid = drainPool(unpaidPower);
+        consumedPower = Math.max(0, consumedPower - (unpaidPower - paid));
+        unpaidPower = 0;
+        setChanged();
+    }
 
-        return amount - remaining;
+    /**
+     * Drain energy from the pool, there is no transfer limit
+     * @return the amount actually drained
+     */
+    private long drainPool(long amount) {
+        long drained = energyPool.withdraw(amount, false);
+        if (drained > 0) {
+            setChanged();
+        }
+        return drained;
     }
 
     /**
@@ -271,10 +541,11 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
 
         // Get and consume spawn ingredients
         ipsis.woot.recipes.SpawnRecipe recipe = getSpawnRecipe();
-        Woot.LOGGER.info("Spawn recipe for {}: {}", entityType, recipe != null ? recipe.toString() : "null");
 
         if (recipe != null && !recipe.isEmpty()) {
             // Ingredients are consumed at a flat rate per cycle (not scaled by mass upgrade)
+            IngredientConsumeEvent event = new IngredientConsumeEvent();
+            event.begin();
             boolean consumed = ipsis.woot.recipes.SpawnRecipeConsumer.consume(
                 level,
                 farmSetup.getImporterPositions(),
@@ -282,32 +553,69 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
                 1, // Always consume base recipe amount (mass upgrade affects drops, not costs)
                 false // Actually consume
             );
+            if (event.shouldCommit()) {
+                event.setFactory(worldPosition, getTierLevel(), getMobKey());
+                event.importerCount = farmSetup.getImporterPositions().size();
+                event.ingredientCount = recipe.getIngredientCount();
+                event.consumed = consumed;
+                event.commit();
+            }
 
             if (!consumed) {
-                Woot.LOGGER.warn("Failed to consume spawn ingredients, aborting spawn");
-                resetProgress();
+                // Keep the power already paid and sleep until the importer sees a change
+                recordCycle(entityType, mobCount, 0, 0, CycleJournal.Outcome.NO_INGREDIENTS);
+                stopProcessing();
+                awaitingIngredients = true;
+                dormant = true;
                 return;
             }
         }
 
         // Generate drops - use configured drops if available, otherwise use loot table
-        List<ItemStack> drops;
         if (recipe != null && recipe.hasConfiguredDrops()) {
             // Use configured drops (for bosses like Wither, Ender Dragon)
-            drops = new ArrayList<>();
+            List<ItemStack> drops = new ArrayList<>();
             for (ItemStack configuredDrop : recipe.getDrops()) {
                 ItemStack scaledDrop = configuredDrop.copy();
                 scaledDrop.setCount(configuredDrop.getCount() * mobCount);
                 drops.add(scaledDrop);
-                Woot.LOGGER.info("Configured drop: {} x {}", scaledDrop.getItem(), scaledDrop.getCount());
             }
-            Woot.LOGGER.info("Using configured drops for {}: {} items", entityType, drops.size());
+            finishSpawnCycle(entityType, mobCount, drops);
         } else {
-            // Generate loot from mob loot tables (standard mobs)
-            int lootingLevel = farmSetup.getLootingLevel();
-            drops = LootHelper.generateLoot(level, entityType, lootingLevel, mobCount);
-            Woot.LOGGER.info("Generated loot table drops for {} with Looting {}: {} items", entityType, lootingLevel, drops.size());
+            // Generate loot from mob loot tables (standard mobs) - may complete on a later tick
+            pendingLoot = LootPipeline.submit(level, worldPosition, getTierLevel(), entityType, farmSetup.getLootingLevel(), mobCount);
+            if (pendingLoot.isDone()) {
+                collectPendingLoot();
+            }
+        }
+    }
+
+    /**
+     * Collect the drops of a finished loot job and complete its cycle
+     */
+    private void collectPendingLoot() {
+        LootJob job = pendingLoot;
+        pendingLoot = null;
+
+        List<ItemStack> drops = job.join();
+
+        if (farmSetup == null || !farmSetup.isProgrammed()) {
+            Woot.LOGGER.warn("Factory at {} was broken while generating loot, {} drops lost", worldPosition, drops.size());
+            recordCycle(job.getEntityType(), job.getMobCount(), drops.size(), countItems(drops), CycleJournal.Outcome.LOOT_LOST);
+            resetProgress();
+            return;
         }
+
+        finishSpawnCycle(job.getEntityType(), job.getMobCount(), drops);
+    }
+
+    /**
+     * Finish a spawn cycle - add bonus drops, record statistics and output to exporters
+     */
+    private void finishSpawnCycle(EntityType<?> entityType, int mobCount, List<ItemStack> drops) {
+        SpawnCycleEvent event = new SpawnCycleEvent();
+        event.begin();
+
         List<ItemStack> mergedDrops = LootHelper.mergeItemStacks(drops);
 
         // Generate tier shard bonus drops
@@ -322,12 +630,10 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
         List<ItemStack> headDrops = generateHeadDrops(entityType, mobCount);
         mergedDrops.addAll(headDrops);
 
-        Woot.LOGGER.info("Factory completed spawn cycle: {} × {} mobs, {} unique drops, merged to {} stacks (+{} tier shards, +{} XP shards, +{} heads)",
-            farmSetup.getProgrammedMob().displayName(), mobCount, drops.size(), mergedDrops.size(), tierShards.size(), xpShards.size(), headDrops.size());
-
-        for (ItemStack drop : mergedDrops) {
-            Woot.LOGGER.info("  - {} x {}", drop.getItem(), drop.getCount());
-        }
+        long items = countItems(mergedDrops);
+        recordCycle(entityType, mobCount, mergedDrops.size(), items, CycleJournal.Outcome.COMPLETED);
+        completedCycles++;
+        cycleRate.add(level.getGameTime(), 1);
 
         // Record drops to learning system (cumulative statistics)
         recordDrops(mergedDrops, mobCount);
@@ -338,10 +644,66 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
         // Output drops to exporters
         outputDrops(mergedDrops);
 
+        if (event.shouldCommit()) {
+            event.setFactory(worldPosition, getTierLevel(), getMobKey());
+            event.mobCount = mobCount;
+            event.stackCount = mergedDrops.size();
+            event.itemCount = items;
+            event.energy = powerRecipe.getTotalPower();
+            event.commit();
+        }
+
         // Reset progress for next cycle
         resetProgress();
     }
 
+    /**
+     * Record a cycle event in the journal (and the journal file when enabled)
+     */
+    private void recordCycle(@Nullable EntityType<?> entityType, int mobCount, int stacks, long items, CycleJournal.Outcome outcome) {
+        if (!(level instanceof ServerLevel serverLevel)) {
+            return;
+        }
+
+        long now = serverLevel.getGameTime();
+        int duration = cycleStartTime >= 0 ? (int) Math.min(Integer.MAX_VALUE, now - cycleStartTime) : -1;
+        long energy = powerRecipe.getTotalPower();
+
+        journal.record(now, entityType, mobCount, stacks, items, energy, duration, outcome);
+        CycleJournalFile.record(serverLevel, worldPosition, now, entityType, mobCount, stacks, items, energy, duration, outcome);
+    }
+
+    private int getTierLevel() {
+        return farmSetup != null ? farmSetup.getTier().getLevel() : 0;
+    }
+
+    @Nullable
+    private String getMobKey() {
+        return farmSetup != null && farmSetup.isProgrammed() ? farmSetup.getProgrammedMob().entityKey() : null;
+    }
+
+    private static long countItems(List<ItemStack> stacks) {
+        long items = 0;
+        for (ItemStack stack : stacks) {
+            items += stack.getCount();
+        }
+        return items;
+    }
+
+    /**
+     * Number of spawn cycles completed since this heart was loaded
+     */
+    public long getCompletedCycles() {
+        return completedCycles;
+    }
+
+    /**
+     * Get the recent spawn cycles of this heart
+     */
+    public CycleJournal getJournal() {
+        return journal;
+    }
+
     /**
      * Generate tier shard bonus drops based on factory tier and configuration
      * Called during completeSpawnCycle() after normal loot generation
@@ -361,34 +723,29 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
         if (!ipsis.woot.config.WootConfig.ALLOW_SHARD_RECIPES.get()) {
             return shardDrops;
         }
+        RandomGenerator random = RandomSourceGenerator.of(level.random);
 
         // Roll for Tier II shard (all factory tiers can drop this)
-        if (factoryTier.getLevel() >= 1) {
-            int roll = level.random.nextInt(101); // 0-100
+        if (FactoryRules.canDropShard(factoryTier.getLevel(), 2)) {
             int chance = ipsis.woot.config.WootConfig.T2_SHARD_DROP_CHANCE.get();
-            if (roll <= chance) {
+            if (FactoryRolls.percent(random, chance)) {
                 shardDrops.add(new ItemStack(Woot.SHARD_TIER_II.get(), 1));
-                Woot.LOGGER.debug("Tier II shard dropped! (rolled {} <= {}%)", roll, chance);
             }
         }
 
         // Roll for Tier III shard (Tier II+ factories)
-        if (factoryTier.getLevel() >= 2) {
-            int roll = level.random.nextInt(101);
+        if (FactoryRules.canDropShard(factoryTier.getLevel(), 3)) {
             int chance = ipsis.woot.config.WootConfig.T3_SHARD_DROP_CHANCE.get();
-            if (roll <= chance) {
+            if (FactoryRolls.percent(random, chance)) {
                 shardDrops.add(new ItemStack(Woot.SHARD_TIER_III.get(), 1));
-                Woot.LOGGER.debug("Tier III shard dropped! (rolled {} <= {}%)", roll, chance);
             }
         }
 
         // Roll for Tier IV shard (Tier III+ factories)
-        if (factoryTier.getLevel() >= 3) {
-            int roll = level.random.nextInt(101);
+        if (FactoryRules.canDropShard(factoryTier.getLevel(), 4)) {
             int chance = ipsis.woot.config.WootConfig.T4_SHARD_DROP_CHANCE.get();
-            if (roll <= chance) {
+            if (FactoryRolls.percent(random, chance)) {
                 shardDrops.add(new ItemStack(Woot.SHARD_TIER_IV.get(), 1));
-                Woot.LOGGER.debug("Tier IV shard dropped! (rolled {} <= {}%)", roll, chance);
             }
         }
 
@@ -411,24 +768,12 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
     private List<ItemStack> generateXPShards(int mobCount) {
         List<ItemStack> xpDrops = new ArrayList<>();
 
-        // Check if XP upgrade is installed
-        float xpMultiplier = farmSetup.getXPMultiplier();
-        if (xpMultiplier <= 1.0f) {
-            // No XP upgrade installed
-            return xpDrops;
-        }
-
-        // Base XP per mob (configurable)
+        // Base XP per mob (configurable), nothing without an XP upgrade
         int baseXPPerMob = ipsis.woot.config.WootConfig.XP_BASE_PER_MOB.get();
-
-        // Calculate total XP with multiplier
-        float totalXP = baseXPPerMob * mobCount * xpMultiplier;
-        int xpShardCount = Math.round(totalXP);
+        int xpShardCount = FactoryRules.getXPShardCount(baseXPPerMob, mobCount, farmSetup.getXPMultiplier());
 
         if (xpShardCount > 0) {
             xpDrops.add(new ItemStack(Woot.XP_SHARD.get(), xpShardCount));
-            Woot.LOGGER.debug("Generated {} XP shards ({} mobs × {} base XP × {:.1f} multiplier)",
-                xpShardCount, mobCount, baseXPPerMob, xpMultiplier);
         }
 
         return xpDrops;
@@ -439,7 +784,7 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
      * Called during completeSpawnCycle() after XP shard generation
      *
      * Head drop logic:
-     * - Rolls for each mob spawned based on decapitate chance (0%, 20%, 40%, or 80%)
+     * - Each mob spawned has the decapitate chance (0%, 20%, 40%, or 80%) to drop a head
      * - Drops the appropriate mob head if successful
      * - Only specific mobs have heads (zombie, skeleton, creeper, wither skeleton, etc.)
      *
@@ -464,18 +809,11 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
             return headDrops;
         }
 
-        // Roll for head drops based on mob count and chance
-        int headCount = 0;
-        for (int i = 0; i < mobCount; i++) {
-            if (level.random.nextFloat() < decapitateChance) {
-                headCount++;
-            }
-        }
+        // One roll per mob, drawn as a single binomial count
+        int headCount = FactoryRolls.binomial(RandomSourceGenerator.of(level.random), mobCount, decapitateChance);
 
         if (headCount > 0) {
             headDrops.add(new ItemStack(headItem, headCount));
-            Woot.LOGGER.debug("Decapitate: Generated {} {} heads ({:.0f}% chance × {} mobs)",
-                headCount, headItem, decapitateChance * 100, mobCount);
         }
 
         return headDrops;
@@ -516,10 +854,14 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
 
         List<BlockPos> exporterPositions = farmSetup.getExporterPositions();
         if (exporterPositions.isEmpty()) {
-            Woot.LOGGER.warn("No exporters found - dropping items at heart");
+            updateOutputBlocked(countItems(drops), "no exporters");
             return;
         }
 
+        ExporterInsertEvent event = new ExporterInsertEvent();
+        event.begin();
+        long rejected = 0;
+
         // Try to insert items into exporters
         for (ItemStack drop : drops) {
             ItemStack remaining = drop.copy();
@@ -535,16 +877,43 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
                 }
             }
 
-            // If there's still items remaining, log a warning
             if (!remaining.isEmpty()) {
-                Woot.LOGGER.warn("Could not output {} × {} - exporters full",
-                    remaining.getCount(), remaining.getDisplayName().getString());
+                rejected += remaining.getCount();
             }
         }
+        updateOutputBlocked(rejected, "exporters full");
+
+        if (event.shouldCommit()) {
+            event.setFactory(worldPosition, getTierLevel(), getMobKey());
+            event.exporterCount = exporterPositions.size();
+            event.stackCount = drops.size();
+            event.itemCount = countItems(drops);
+            event.itemsRejected = rejected;
+            event.commit();
+        }
 
         setChanged();
     }
 
+    /**
+     * Log when drops start or stop being lost - full exporters are a normal steady state, so
+     * only the change is logged (the JFR exporter event has the per-cycle count)
+     */
+    private void updateOutputBlocked(long rejected, String reason) {
+        boolean blocked = rejected > 0;
+        if (blocked == outputBlocked) {
+            return;
+        }
+
+        outputBlocked = blocked;
+        if (blocked) {
+            Woot.LOGGER.warn("Factory at {} could not output {} items - {}, drops are lost until it can",
+                worldPosition, rejected, reason);
+        } else {
+            Woot.LOGGER.info("Factory at {} is outputting its drops again", worldPosition);
+        }
+    }
+
     /**
      * Record drops to the learning system
      * Tracks cumulative statistics for drop chance calculation
@@ -645,6 +1014,8 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
      * Reset progress for next cycle
      */
     private void resetProgress() {
+        accrualStart = -1;
+        cycleStartTime = -1;
         consumedPower = 0;
         setChanged();
     }
@@ -663,19 +1034,19 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
      * Update the farm setup from the structure
      */
     private void updateFarmSetup() {
+        // Pay for accrued power against the cells of the old setup
+        settleAccrual();
+
         if (farmStructure.isFormed()) {
             farmSetup = farmStructure.createSetup();
             if (farmSetup != null) {
-                // Update energy storage from aggregated cells
-                FactoryEnergyStorage aggregated = farmSetup.getAggregatedEnergy();
-                if (aggregated != null) {
-                    this.energyStorage = aggregated;
-                }
+                // Pool the cells of the new setup
+                detachCells();
+                attachCells(farmSetup.getCellPositions());
 
                 // Update power recipe based on tier and rate upgrade
                 int tierLevel = farmSetup.getTier().getLevel(); // 1-4
-                int baseTicks = 320; // Base spawn cycle duration
-                int adjustedTicks = farmSetup.getSpawnRateTicks(baseTicks); // Apply rate upgrade
+                int adjustedTicks = farmSetup.getSpawnRateTicks(FactoryRules.BASE_SPAWN_TICKS); // Apply rate upgrade
                 this.powerRecipe = PowerRecipe.forTier(tierLevel, adjustedTicks);
 
                 // Check if programmed mob changed - reset drop statistics if so
@@ -695,8 +1066,9 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
             }
         } else {
             farmSetup = null;
-            // Reset to default energy
-            this.energyStorage = new FactoryEnergyStorage(100000, 1000, 0);
+            // Give the cells their energy back
+            detachCells();
+            energyPool.setCapacity(0);
         }
         setChanged();
     }
@@ -708,6 +1080,115 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
         if (farmStructure != null) {
             farmStructure.setStructureDirty();
         }
+        awaitingIngredients = false;
+        wake();
+    }
+
+    /**
+     * Mark a single changed block position as needing validation
+     * A formed factory only revalidates the part of the structure the position belongs to
+     */
+    public void markStructureDirty(@Nonnull BlockPos changedPos) {
+        if (farmStructure != null) {
+            farmStructure.setStructureDirty(changedPos);
+        }
+        awaitingIngredients = false;
+        wake();
+    }
+
+    /**
+     * Called when an importer's neighboring inventory changes
+     */
+    public void onImporterChanged() {
+        awaitingIngredients = false;
+        wake();
+    }
+
+    /**
+     * Check if the heart is dormant (parked by the scheduler)
+     */
+    public boolean isDormant() {
+        return dormant;
+    }
+
+    /**
+     * Energy arrived through the heart or one of its pooled cells
+     */
+    public void onEnergyReceived(int amount) {
+        if (level != null) {
+            energyIn.add(level.getGameTime(), amount);
+        }
+        wake();
+    }
+
+    /**
+     * Average RF/t received by the factory
+     */
+    public double getEnergyInPerTick() {
+        return level != null ? energyIn.get(level.getGameTime()) : 0.0;
+    }
+
+    /**
+     * Average RF/t consumed by spawn cycles
+     */
+    public double getEnergyOutPerTick() {
+        return level != null ? energyOut.get(level.getGameTime()) : 0.0;
+    }
+
+    /**
+     * Percentage of recent ticks the factory was held up by a lack of power
+     */
+    public double getPowerStalledPercent() {
+        return level != null ? powerStall.get(level.getGameTime()) * 100.0 : 0.0;
+    }
+
+    /**
+     * Average completed spawn cycles per minute
+     */
+    public double getCyclesPerMinute() {
+        return level != null ? cycleRate.get(level.getGameTime()) * 1200.0 : 0.0;
+    }
+
+    /**
+     * Comparator output - how full the energy pool is, 0 when empty and 15 when full
+     */
+    public int getComparatorSignal() {
+        long capacity = energyPool.getCapacity();
+        long unpaid = accrualPrepaid > 0 ? 0 : getUnsettledPower();
+        long stored = Math.max(0, energyPool.getStored() - unpaid);
+        if (capacity <= 0 || stored <= 0) {
+            return 0;
+        }
+        return 1 + (int) (Math.min(stored, capacity) * 14 / capacity);
+    }
+
+    private void updateComparatorSignal() {
+        int signal = getComparatorSignal();
+        if (signal != comparatorSignal) {
+            comparatorSignal = signal;
+            level.updateNeighbourForOutputSignal(worldPosition, getBlockState().getBlock());
+        }
+    }
+
+    /**
+     * Wake a dormant heart
+     * Called on cell energy input, controller programming, structure changes and importer neighbor updates
+     */
+    public void wake() {
+        if (!dormant) {
+            return;
+        }
+
+        dormant = false;
+        // Don't treat the dormant period as missed ticks
+        lastScheduledTick = -1;
+
+        if (level instanceof ServerLevel serverLevel) {
+            FactoryScheduler scheduler = FactoryScheduler.find(serverLevel);
+            if (scheduler != null) {
+                scheduler.wake(this);
+            }
+        }
     }
 
     /**
@@ -749,7 +1230,12 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
     public void setFormed(boolean formed) {
         if (!formed && farmStructure != null) {
             farmStructure.fullDisconnect();
+            // The heart is going away - the cells keep the energy, including any prepaid power
+            settleAccrual();
+            detachCells();
+            energyPool.setCapacity(0);
             farmStructure.setStructureDirty();
+            wake();
         }
     }
 
@@ -765,6 +1251,9 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
      * Get consumed power for progress tracking
      */
     public long getConsumedPower() {
+        if (isAccruing()) {
+            return accrualBase + getUnsettledPower();
+        }
         return consumedPower;
     }
 
@@ -775,15 +1264,24 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
         if (powerRecipe == null) {
             return 0;
         }
-        return powerRecipe.getProgress(consumedPower);
+        return powerRecipe.getProgress(getConsumedPower());
     }
 
     @Override
     protected void saveAdditional(@Nonnull CompoundTag tag, @Nonnull HolderLookup.Provider registries) {
         super.saveAdditional(tag, registries);
 
-        tag.putInt("Energy", energyStorage.getEnergyStored());
-        tag.putLong("ConsumedPower", consumedPower);
+        // Prepaid power not used yet goes back to the pool, the accrual does not survive a reload
+        tag.putLong("PoolEnergy", energyPool.getStored() + getUnusedPrepaidPower());
+        if (!pooledCells.isEmpty()) {
+            tag.putLongArray("PooledCells", pooledCells.stream().mapToLong(BlockPos::asLong).toArray());
+        }
+        tag.putLong("ConsumedPower", getConsumedPower());
+        // Accrued power still sitting in the cells - drained after loading
+        long unpaid = unpaidPower + (accrualPrepaid > 0 ? 0 : getUnsettledPower());
+        if (unpaid > 0) {
+            tag.putLong("UnpaidPower", unpaid);
+        }
 
         // Save learning system statistics
         tag.putInt("TotalSamples", totalSamples);
@@ -804,12 +1302,17 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
     protected void loadAdditional(@Nonnull CompoundTag tag, @Nonnull HolderLookup.Provider registries) {
         super.loadAdditional(tag, registries);
 
-        if (tag.contains("Energy")) {
-            energyStorage.setEnergy(tag.getInt("Energy"));
-        }
+        // The old "Energy" tag was a copy of the cells' energy and is ignored
+        energyPool.setStored(tag.getLong("PoolEnergy"));
+        // The cells are attached again when the structure forms, handing back their shares first
+        pooledCells = Arrays.stream(tag.getLongArray("PooledCells")).mapToObj(BlockPos::of).toList();
+        cellsAttached = false;
         if (tag.contains("ConsumedPower")) {
             consumedPower = tag.getLong("ConsumedPower");
         }
+        unpaidPower = tag.getLong("UnpaidPower");
+        accrualStart = -1;
+        accrualPrepaid = 0;
 
         // Load learning system statistics
         if (tag.contains("TotalSamples")) {
@@ -839,6 +1342,52 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
         if (!level.isClientSide() && farmStructure != null) {
             farmStructure.setStructureDirty();
         }
+
+        if (level instanceof ServerLevel serverLevel) {
+            FactoryScheduler.get(serverLevel).add(this);
+            FactoryHeartRegistry.get(serverLevel).add(this);
+        }
+    }
+
+    @Override
+    public void setRemoved() {
+        super.setRemoved();
+        unschedule(true);
+    }
+
+    @Override
+    public void onChunkUnloaded() {
+        super.onChunkUnloaded();
+        // Don't lose a paid-for cycle - wait for its drops while the exporters are still here
+        if (pendingLoot != null) {
+            collectPendingLoot();
+        }
+        // The factory is still there, the hearts around it have nothing to rescan for
+        unschedule(false);
+    }
+
+    /**
+     * Remove this heart from the level scheduler and heart registry, and release its blocks and cells
+     *
+     * @param notifyReleased Tell the unformed hearts around it that its blocks were released
+     */
+    private void unschedule(boolean notifyReleased) {
+        if (level instanceof ServerLevel serverLevel) {
+            FactoryScheduler scheduler = FactoryScheduler.find(serverLevel);
+            if (scheduler != null) {
+                scheduler.remove(this);
+            }
+            FactoryHeartRegistry registry = FactoryHeartRegistry.find(serverLevel);
+            if (registry != null) {
+                registry.remove(this);
+            }
+            FactoryOwnershipMap ownership = FactoryOwnershipMap.find(serverLevel);
+            if (ownership != null && ownership.release(worldPosition) && notifyReleased) {
+                WootBlockNotifier.notifyClaimReleased(serverLevel, worldPosition);
+            }
+            releaseCells();
+        }
+        lastScheduledTick = -1;
     }
 
     /**
@@ -988,14 +1537,16 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
      * Get stored power in RF
      */
     public int getPowerStored() {
-        return energyStorage.getEnergyStored();
+        // Accrued power is still in the cells until settled, prepaid power has already left them
+        long unpaid = accrualPrepaid > 0 ? 0 : getUnsettledPower();
+        return EnergyPool.saturate(Math.max(0, energyPool.getStored() - unpaid));
     }
 
     /**
      * Get maximum power capacity in RF
      */
     public int getPowerCapacity() {
-        return energyStorage.getMaxEnergyStored();
+        return EnergyPool.saturate(energyPool.getCapacity());
     }
 
     /**
@@ -1077,12 +1628,18 @@ public class FactoryHeartBlockEntity extends BlockEntity implements IFactoryGlue
 
         // Current state
         info.setRunning(isRunning());
-        info.setConsumedPower(consumedPower);
+        info.setConsumedPower(getConsumedPower());
         info.setMissingIngredients(hasMissingIngredients());
 
         // Power storage
-        info.setPowerStored(energyStorage.getEnergyStored());
-        info.setPowerCapacity(energyStorage.getMaxEnergyStored());
+        info.setPowerStored(getPowerStored());
+        info.setPowerCapacity(getPowerCapacity());
+
+        // Flow meters
+        info.setEnergyInPerTick((float) getEnergyInPerTick());
+        info.setEnergyOutPerTick((float) getEnergyOutPerTick());
+        info.setPowerStalledPercent((float) getPowerStalledPercent());
+        info.setCyclesPerMinute((float) getCyclesPerMinute());
 
         // Validity
         info.setValid(isValid());
@@ -2,10 +2,8 @@ package ipsis.woot.blocks;
 
 import com.mojang.serialization.MapCodec;
 import ipsis.woot.blockentities.FactoryHeartBlockEntity;
-import ipsis.woot.blockentities.WootBlockEntities;
 import ipsis.woot.util.WootBlockNotifier;
 import net.minecraft.core.BlockPos;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.InteractionResult;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
@@ -44,14 +42,14 @@ public class FactoryHeartBlock extends BaseEntityBlock {
         return new FactoryHeartBlockEntity(pos, state);
     }
 
+    /**
+     * Hearts are not ticked by the chunk - they register with the level's FactoryScheduler
+     * which services them under a per-tick time budget
+     */
     @Nullable
     @Override
     public <T extends BlockEntity> BlockEntityTicker<T> getTicker(Level level, BlockState state, BlockEntityType<T> blockEntityType) {
-        if (level.isClientSide()) {
-            return null;
-        }
-        return createTickerHelper(blockEntityType, WootBlockEntities.FACTORY_HEART.get(),
-            (lvl, pos, st, be) -> FactoryHeartBlockEntity.serverTick(lvl, pos, st, be));
+        return null;
     }
 
     @Override
@@ -60,6 +58,22 @@ public class FactoryHeartBlock extends BaseEntityBlock {
         return RenderShape.MODEL;
     }
 
+    @Override
+    protected boolean hasAnalogOutputSignal(@Nonnull BlockState state) {
+        return true;
+    }
+
+    /**
+     * Comparator output follows how full the factory's energy pool is
+     */
+    @Override
+    protected int getAnalogOutputSignal(@Nonnull BlockState state, @Nonnull Level level, @Nonnull BlockPos pos) {
+        if (level.getBlockEntity(pos) instanceof FactoryHeartBlockEntity heart) {
+            return heart.getComparatorSignal();
+        }
+        return 0;
+    }
+
     @Override
     @Nonnull
     @SuppressWarnings("deprecation")
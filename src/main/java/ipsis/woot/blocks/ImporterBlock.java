@@ -1,10 +1,13 @@
 package ipsis.woot.blocks;
 
 import com.mojang.serialization.MapCodec;
+import ipsis.woot.blockentities.FactoryHeartBlockEntity;
 import ipsis.woot.blockentities.ImporterBlockEntity;
 import ipsis.woot.util.WootBlockNotifier;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.BaseEntityBlock;
 import net.minecraft.world.level.block.RenderShape;
 import net.minecraft.world.level.block.entity.BlockEntity;
@@ -42,6 +45,35 @@ public class ImporterBlock extends BaseEntityBlock {
         return RenderShape.MODEL;
     }
 
+    @Override
+    @SuppressWarnings("deprecation")
+    protected void neighborChanged(@Nonnull BlockState state, @Nonnull Level level, @Nonnull BlockPos pos,
+                                   @Nonnull Block neighborBlock, @Nonnull BlockPos neighborPos, boolean movedByPiston) {
+        super.neighborChanged(state, level, pos, neighborBlock, neighborPos, movedByPiston);
+        wakeHeart(level, pos);
+    }
+
+    @Override
+    public void onNeighborChange(@Nonnull BlockState state, @Nonnull LevelReader level, @Nonnull BlockPos pos, @Nonnull BlockPos neighbor) {
+        super.onNeighborChange(state, level, pos, neighbor);
+        // Fired when an adjacent container's contents change
+        wakeHeart(level, pos);
+    }
+
+    /**
+     * Wake the heart this importer feeds (the heart sits three blocks above the importer)
+     */
+    private static void wakeHeart(@Nonnull LevelReader level, @Nonnull BlockPos pos) {
+        if (level.isClientSide()) {
+            return;
+        }
+
+        BlockEntity be = level.getBlockEntity(pos.above(3));
+        if (be instanceof FactoryHeartBlockEntity heart) {
+            heart.onImporterChanged();
+        }
+    }
+
     @Override
     @SuppressWarnings("deprecation")
     public void onPlace(BlockState state, Level level, BlockPos pos, BlockState oldState, boolean isMoving) {
@@ -84,10 +84,7 @@ public class LayoutBlockEntityRenderer implements BlockEntityRenderer<LayoutBloc
                     }
 
                     // Get the block for this module
-                    Block block = getBlockForModule(module);
-                    if (block == null) {
-                        continue;
-                    }
+                    Block block = module.getBlock();
 
                     // Calculate world position relative to layout block
                     int worldX = x + xOffset;
@@ -105,25 +102,6 @@ public class LayoutBlockEntityRenderer implements BlockEntityRenderer<LayoutBloc
         renderGhostBlock(poseStack, bufferSource, Woot.CONTROLLER.get(), 0, 2, 1, combinedLight, combinedOverlay);
     }
 
-    /**
-     * Map a factory module to its corresponding block
-     */
-    private Block getBlockForModule(EnumMobFactoryModule module) {
-        return switch (module) {
-            case STRUCTURE_BLOCK_1 -> Woot.STRUCTURE_BLOCK_1.get();
-            case STRUCTURE_BLOCK_2 -> Woot.STRUCTURE_BLOCK_2.get();
-            case STRUCTURE_BLOCK_3 -> Woot.STRUCTURE_BLOCK_3.get();
-            case STRUCTURE_BLOCK_4 -> Woot.STRUCTURE_BLOCK_4.get();
-            case STRUCTURE_BLOCK_5 -> Woot.STRUCTURE_BLOCK_5.get();
-            case STRUCTURE_UPGRADE -> Woot.STRUCTURE_BLOCK_UPGRADE.get();
-            case STRUCTURE_TIER_I_CAP -> Woot.STRUCTURE_TIER_I_CAP.get();
-            case STRUCTURE_TIER_II_CAP -> Woot.STRUCTURE_TIER_II_CAP.get();
-            case STRUCTURE_TIER_III_CAP -> Woot.STRUCTURE_TIER_III_CAP.get();
-            case STRUCTURE_TIER_IV_CAP -> Woot.STRUCTURE_TIER_IV_CAP.get();
-            default -> null;
-        };
-    }
-
     /**
      * Render a ghost block using actual block model at 90% scale
      */
@@ -57,6 +57,7 @@ public class FactoryHeartScreen extends AbstractContainerScreen<FactoryHeartMenu
     private static final int COLOR_ORANGE = 0xFFA500;      // Spawning bar
 
     private static final DecimalFormat dfCommas = new DecimalFormat("###,###");
+    private static final DecimalFormat dfRate = new DecimalFormat("###,##0.#");
 
     // Update tracking
     private int tickCounter = 0;
@@ -104,6 +105,7 @@ public class FactoryHeartScreen extends AbstractContainerScreen<FactoryHeartMenu
         super.render(guiGraphics, mouseX, mouseY, partialTick);
 
         // Render tooltips AFTER everything else (critical for proper display)
+        renderPowerTooltip(guiGraphics, mouseX, mouseY);
         renderIngredientTooltips(guiGraphics, mouseX, mouseY);
         renderDropTooltips(guiGraphics, mouseX, mouseY);
     }
@@ -176,6 +178,39 @@ public class FactoryHeartScreen extends AbstractContainerScreen<FactoryHeartMenu
         renderDropsPanel(guiGraphics, GUI_X_MARGIN, yOffset, panelWidth, dropsHeight);
     }
 
+    /**
+     * Render the energy flow tooltip when hovering over the power bar
+     * Called from render() method with screen-absolute mouse coordinates
+     */
+    private void renderPowerTooltip(GuiGraphics guiGraphics, int mouseX, int mouseY) {
+        // Power panel position (same as in renderLabels)
+        int panelWidth = WIDTH - (GUI_X_MARGIN * 2);
+        int panelX = leftPos + GUI_X_MARGIN;
+        int panelY = topPos + GUI_Y_MARGIN + RECIPE_HEIGHT + PANEL_MARGIN;
+
+        if (mouseX < panelX || mouseX >= panelX + panelWidth || mouseY < panelY || mouseY >= panelY + PROGRESS_HEIGHT) {
+            return;
+        }
+
+        List<Component> tooltip = new ArrayList<>();
+        tooltip.add(Component.literal("Energy Flow"));
+        tooltip.add(Component.literal("In: " + dfRate.format(farmUIInfo.getEnergyInPerTick()) + " RF/t")
+            .withStyle(net.minecraft.ChatFormatting.GRAY));
+        tooltip.add(Component.literal("Out: " + dfRate.format(farmUIInfo.getEnergyOutPerTick()) + " RF/t")
+            .withStyle(net.minecraft.ChatFormatting.GRAY));
+        tooltip.add(Component.literal("Cycles: " + dfRate.format(farmUIInfo.getCyclesPerMinute()) + " /min")
+            .withStyle(net.minecraft.ChatFormatting.GRAY));
+
+        // Only worth showing once the factory has been held up
+        float stalled = farmUIInfo.getPowerStalledPercent();
+        if (stalled >= 1.0F) {
+            tooltip.add(Component.literal("Stalled on power: " + dfRate.format(stalled) + "%")
+                .withStyle(net.minecraft.ChatFormatting.RED));
+        }
+
+        guiGraphics.renderTooltip(this.font, tooltip, java.util.Optional.empty(), mouseX, mouseY);
+    }
+
     /**
      * Render tooltips for ingredient items when hovering
      * Called from render() method with screen-absolute mouse coordinates
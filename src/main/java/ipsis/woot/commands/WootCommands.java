@@ -0,0 +1,119 @@
+package ipsis.woot.commands;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+import ipsis.woot.Woot;
+import ipsis.woot.blockentities.FactoryCellBlockEntity;
+import ipsis.woot.blockentities.FactoryHeartBlockEntity;
+import ipsis.woot.farming.CycleJournal;
+import ipsis.woot.farmstructure.FarmSetup;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.coordinates.BlockPosArgument;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.RegisterCommandsEvent;
+
+import java.util.Locale;
+
+/**
+ * Server commands for inspecting factories
+ *
+ * /woot journal <pos> - the recent spawn cycles of the factory heart at pos
+ * /woot stats <pos> - the energy flow meters of the factory heart at pos and its cells
+ */
+@EventBusSubscriber(modid = Woot.MODID)
+public class WootCommands {
+
+    private static final SimpleCommandExceptionType NOT_A_HEART =
+        new SimpleCommandExceptionType(Component.translatable("commands.woot.not_a_heart"));
+
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        register(event.getDispatcher());
+    }
+
+    private static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("woot")
+            .requires(source -> source.hasPermission(2))
+            .then(Commands.literal("journal")
+                .then(Commands.argument("pos", BlockPosArgument.blockPos())
+                    .executes(context -> journal(context.getSource(),
+                        BlockPosArgument.getLoadedBlockPos(context, "pos")))))
+            .then(Commands.literal("stats")
+                .then(Commands.argument("pos", BlockPosArgument.blockPos())
+                    .executes(context -> stats(context.getSource(),
+                        BlockPosArgument.getLoadedBlockPos(context, "pos"))))));
+    }
+
+    private static int journal(CommandSourceStack source, BlockPos pos) throws CommandSyntaxException {
+        FactoryHeartBlockEntity heart = getHeart(source.getLevel(), pos);
+        CycleJournal journal = heart.getJournal();
+
+        source.sendSuccess(() -> Component.translatable("commands.woot.journal.header",
+            pos.getX(), pos.getY(), pos.getZ(), journal.size()), false);
+
+        long now = source.getLevel().getGameTime();
+        for (int age = 0; age < journal.size(); age++) {
+            CycleJournal.Entry entry = journal.get(age);
+            String mob = entry.entityType() != null
+                ? BuiltInRegistries.ENTITY_TYPE.getKey(entry.entityType()).toString()
+                : "-";
+            String duration = entry.duration() >= 0 ? String.valueOf(entry.duration()) : "?";
+
+            Component line = Component.translatable("commands.woot.journal.entry",
+                now - entry.gameTime(),
+                entry.outcome().name().toLowerCase(Locale.ROOT),
+                entry.mobCount(), mob,
+                entry.stackCount(), entry.itemCount(),
+                entry.energy(), duration);
+            source.sendSuccess(() -> line, false);
+        }
+
+        return journal.size();
+    }
+
+    private static int stats(CommandSourceStack source, BlockPos pos) throws CommandSyntaxException {
+        ServerLevel level = source.getLevel();
+        FactoryHeartBlockEntity heart = getHeart(level, pos);
+
+        source.sendSuccess(() -> Component.translatable("commands.woot.stats.header",
+            pos.getX(), pos.getY(), pos.getZ()), false);
+        source.sendSuccess(() -> Component.translatable("commands.woot.stats.energy",
+            formatRate(heart.getEnergyInPerTick()), formatRate(heart.getEnergyOutPerTick()),
+            heart.getPowerStored(), heart.getPowerCapacity()), false);
+        source.sendSuccess(() -> Component.translatable("commands.woot.stats.activity",
+            formatRate(heart.getPowerStalledPercent()), formatRate(heart.getCyclesPerMinute())), false);
+
+        FarmSetup setup = heart.getFarmSetup();
+        if (setup != null) {
+            for (BlockPos cellPos : setup.getCellPositions()) {
+                if (level.getBlockEntity(cellPos) instanceof FactoryCellBlockEntity cell) {
+                    source.sendSuccess(() -> Component.translatable("commands.woot.stats.cell",
+                        cellPos.getX(), cellPos.getY(), cellPos.getZ(),
+                        formatRate(cell.getEnergyInPerTick())), false);
+                }
+            }
+        }
+
+        return 1;
+    }
+
+    private static String formatRate(double rate) {
+        return String.format(Locale.ROOT, "%.1f", rate);
+    }
+
+    private static FactoryHeartBlockEntity getHeart(ServerLevel level, BlockPos pos) throws CommandSyntaxException {
+        BlockEntity blockEntity = level.getBlockEntity(pos);
+        if (blockEntity instanceof FactoryHeartBlockEntity heart) {
+            return heart;
+        }
+        throw NOT_A_HEART.create();
+    }
+}
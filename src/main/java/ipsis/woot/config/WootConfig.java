@@ -21,6 +21,21 @@ public class WootConfig {
     public static final ModConfigSpec.IntValue XP_BASE_PER_MOB;
     public static final ModConfigSpec.BooleanValue ENABLE_UPGRADE_POWER_COSTS;
 
+    // Performance Configuration
+    public static final ModConfigSpec.IntValue FACTORY_TICK_BUDGET_MICROS;
+    public static final ModConfigSpec.BooleanValue ANALYTIC_POWER_ACCRUAL;
+    public static final ModConfigSpec.BooleanValue BURST_POWER;
+    public static final ModConfigSpec.BooleanValue BURST_FAST_COMPLETE;
+    public static final ModConfigSpec.IntValue WORKER_THREADS;
+    public static final ModConfigSpec.BooleanValue STATISTICAL_LOOT;
+    public static final ModConfigSpec.IntValue STATISTICAL_LOOT_MIN_SAMPLES;
+    public static final ModConfigSpec.IntValue STATISTICAL_LOOT_AUDIT_PERCENT;
+    public static final ModConfigSpec.BooleanValue CYCLE_JOURNAL_FILE;
+    public static final ModConfigSpec.IntValue CYCLE_JOURNAL_FILE_MAX_KB;
+    public static final ModConfigSpec.IntValue STRUCTURE_QUIET_TICKS;
+    public static final ModConfigSpec.IntValue STRUCTURE_BACKOFF_MAX_TICKS;
+    public static final ModConfigSpec.IntValue BUILDER_BLOCKS_PER_TICK;
+
     static {
         BUILDER.comment("Factory General Settings").push("factory_general");
 
@@ -55,6 +70,63 @@ public class WootConfig {
 
         BUILDER.pop();
 
+        // Performance Settings
+        BUILDER.comment("Factory Performance Settings").push("factory_performance");
+
+        FACTORY_TICK_BUDGET_MICROS = BUILDER
+            .comment("Time budget in microseconds per level tick for running factories (0 = unlimited). Factories not reached catch up on the next tick")
+            .defineInRange("factoryTickBudgetMicros", 2000, 0, 50000);
+
+        ANALYTIC_POWER_ACCRUAL = BUILDER
+            .comment("Compute spawn cycle progress from game time while the cells hold enough power for the rest of the cycle, draining the cells once at the end instead of every tick. When false, power is drawn every tick and burstPower has no effect")
+            .define("analyticPowerAccrual", true);
+
+        BURST_POWER = BUILDER
+            .comment("When the cells hold the rest of a spawn cycle's power, take all of it in one extraction at the start of the accrual. Power the cycle has not used yet is refunded if it is interrupted. Only applies while analyticPowerAccrual is enabled")
+            .define("burstPower", true);
+
+        BURST_FAST_COMPLETE = BUILDER
+            .comment("In burst mode, complete a cycle as soon as its power is paid instead of waiting out the cycle time, so throughput follows the power supply. At most one cycle completes per factory visit (one per tick when the factory is scheduled every tick)")
+            .define("burstFastComplete", false);
+
+        WORKER_THREADS = BUILDER
+            .comment("Worker threads for off-thread factory work such as loot generation (0 = run everything on the server thread)")
+            .defineInRange("workerThreads", 2, 0, 8);
+
+        STATISTICAL_LOOT = BUILDER
+            .comment("Once enough mobs have been rolled for a mob type, draw drop totals from the learned per-item distribution instead of rolling the loot table per mob")
+            .define("statisticalLoot", false);
+
+        STATISTICAL_LOOT_MIN_SAMPLES = BUILDER
+            .comment("Mobs that must be rolled for real before statistical loot is used for a mob type")
+            .defineInRange("statisticalLootMinSamples", 500, 50, 100000);
+
+        STATISTICAL_LOOT_AUDIT_PERCENT = BUILDER
+            .comment("Percentage (0-100) of statistical cycles that roll the real loot table instead, keeping the learned distribution up to date")
+            .defineInRange("statisticalLootAuditPercent", 10, 0, 100);
+
+        CYCLE_JOURNAL_FILE = BUILDER
+            .comment("Also append every spawn cycle event to woot/journal.bin in the world folder (binary, rotated). The last cycles of a heart can always be read with /woot journal")
+            .define("cycleJournalFile", false);
+
+        CYCLE_JOURNAL_FILE_MAX_KB = BUILDER
+            .comment("Size in KB at which the cycle journal file is rotated")
+            .defineInRange("cycleJournalFileMaxKb", 4096, 64, 1048576);
+
+        STRUCTURE_QUIET_TICKS = BUILDER
+            .comment("Ticks without block changes before a factory structure is rescanned. Changes inside the window are collapsed into one scan")
+            .defineInRange("structureQuietTicks", 10, 0, 100);
+
+        STRUCTURE_BACKOFF_MAX_TICKS = BUILDER
+            .comment("Longest wait in ticks between rescans of a factory that is not formed yet when no block changed, such as after a nearby factory released its blocks. The wait doubles after every scan that fails to form it")
+            .defineInRange("structureBackoffMaxTicks", 200, 0, 1200);
+
+        BUILDER_BLOCKS_PER_TICK = BUILDER
+            .comment("Blocks the factory builder places per level tick, shared between all builds in the level")
+            .defineInRange("builderBlocksPerTick", 64, 1, 4096);
+
+        BUILDER.pop();
+
         SPEC = BUILDER.build();
     }
 }
@@ -0,0 +1,86 @@
+package ipsis.woot.events;
+
+import ipsis.woot.Woot;
+import ipsis.woot.farming.CycleJournalFile;
+import ipsis.woot.farming.FactoryHeartRegistry;
+import ipsis.woot.farming.FactoryScheduler;
+import ipsis.woot.farmstructure.FactoryBuildQueue;
+import ipsis.woot.farmstructure.FactoryOwnershipMap;
+import ipsis.woot.loot.LootModel;
+import ipsis.woot.loot.LootSafety;
+import ipsis.woot.util.LootHelper;
+import ipsis.woot.util.TemplateEntityCache;
+import ipsis.woot.util.WootWorkerPool;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.packs.resources.ResourceManagerReloadListener;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.AddReloadListenerEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+
+/**
+ * Event handler driving the per-level factory scheduler and server lifetime of factory caches
+ */
+@EventBusSubscriber(modid = Woot.MODID)
+public class FactoryEventHandler {
+
+    /**
+     * Run the factory builds and scheduler once the level has finished its own tick
+     */
+    @SubscribeEvent
+    public static void onLevelTick(LevelTickEvent.Post event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            FactoryBuildQueue buildQueue = FactoryBuildQueue.find(serverLevel);
+            if (buildQueue != null) {
+                buildQueue.tick(serverLevel);
+            }
+            FactoryScheduler.get(serverLevel).tick();
+        }
+    }
+
+    /**
+     * Refund unfinished factory builds, stop the worker pool and forget per-server caches
+     */
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        // The players are still online here, they are gone by the time the levels unload
+        for (ServerLevel level : event.getServer().getAllLevels()) {
+            FactoryBuildQueue.remove(level);
+        }
+        WootWorkerPool.shutdown();
+        LootSafety.clear();
+        LootModel.clear();
+        LootHelper.clearCompiledTables();
+        TemplateEntityCache.clear();
+        CycleJournalFile.shutdown();
+    }
+
+    /**
+     * Drop per-level state when its level goes away
+     */
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            FactoryScheduler.remove(serverLevel);
+            FactoryHeartRegistry.remove(serverLevel);
+            FactoryOwnershipMap.remove(serverLevel);
+            FactoryBuildQueue.remove(serverLevel);
+            TemplateEntityCache.evict(serverLevel);
+        }
+    }
+
+    /**
+     * Data pack reloads can change entity definitions and loot tables
+     */
+    @SubscribeEvent
+    public static void onAddReloadListener(AddReloadListenerEvent event) {
+        event.addListener((ResourceManagerReloadListener) resourceManager -> {
+            TemplateEntityCache.clear();
+            LootSafety.clear();
+            LootModel.clear();
+            LootHelper.clearCompiledTables();
+        });
+    }
+}
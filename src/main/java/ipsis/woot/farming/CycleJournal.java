@@ -0,0 +1,99 @@
+package ipsis.woot.farming;
+
+import net.minecraft.world.entity.EntityType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring buffer of the last spawn cycles a heart ran
+ *
+ * Events are stored in parallel primitive arrays, so recording one does not allocate or format
+ * anything. Entries are only built when the journal is read, e.g. by /woot journal.
+ */
+public class CycleJournal {
+
+    public static final int CAPACITY = 64;
+
+    public enum Outcome {
+        COMPLETED,          // Drops sent to the exporters
+        NO_INGREDIENTS,     // Power paid but the importers could not supply the spawn ingredients
+        LOOT_LOST           // Factory broke while the loot was being generated
+    }
+
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    private final long[] gameTime = new long[CAPACITY];
+    private final EntityType<?>[] entityType = new EntityType<?>[CAPACITY];
+    private final int[] mobCount = new int[CAPACITY];
+    private final int[] stackCount = new int[CAPACITY];
+    private final long[] itemCount = new long[CAPACITY];
+    private final long[] energy = new long[CAPACITY];
+    private final int[] duration = new int[CAPACITY];
+    private final byte[] outcome = new byte[CAPACITY];
+
+    private int next = 0;
+    private int size = 0;
+
+    /**
+     * One journal event, built on read
+     *
+     * @param duration Game ticks from the first power drawn to the end of the cycle, -1 if not known
+     */
+    public record Entry(long gameTime, @Nullable EntityType<?> entityType, int mobCount, int stackCount,
+                        long itemCount, long energy, int duration, @Nonnull Outcome outcome) {
+    }
+
+    /**
+     * Record a cycle event, overwriting the oldest one when full
+     */
+    public void record(long time, @Nullable EntityType<?> type, int mobs, int stacks, long items,
+                       long power, int ticks, @Nonnull Outcome result) {
+        gameTime[next] = time;
+        entityType[next] = type;
+        mobCount[next] = mobs;
+        stackCount[next] = stacks;
+        itemCount[next] = items;
+        energy[next] = power;
+        duration[next] = ticks;
+        outcome[next] = (byte) result.ordinal();
+
+        next = (next + 1) % CAPACITY;
+        if (size < CAPACITY) {
+            size++;
+        }
+    }
+
+    /**
+     * Number of events held
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get an event by age
+     *
+     * @param age 0 for the newest event, up to size() - 1 for the oldest
+     */
+    @Nonnull
+    public Entry get(int age) {
+        if (age < 0 || age >= size) {
+            throw new IndexOutOfBoundsException(age);
+        }
+
+        int i = Math.floorMod(next - 1 - age, CAPACITY);
+        return new Entry(gameTime[i], entityType[i], mobCount[i], stackCount[i],
+            itemCount[i], energy[i], duration[i], OUTCOMES[outcome[i]]);
+    }
+
+    /**
+     * Forget all events
+     */
+    public void clear() {
+        next = 0;
+        size = 0;
+        Arrays.fill(entityType, null);
+    }
+}
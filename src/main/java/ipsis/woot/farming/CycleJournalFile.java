@@ -0,0 +1,151 @@
+package ipsis.woot.farming;
+
+import ipsis.woot.Woot;
+import ipsis.woot.config.WootConfig;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.storage.LevelResource;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional binary log of the spawn cycle events of every heart on the server
+ *
+ * Events are packed into a buffer on the server thread and appended to woot/journal.bin in the
+ * world folder by a single background thread. When the file reaches the configured size it is
+ * rotated to journal.1.bin, journal.2.bin and so on.
+ *
+ * Record layout (DataOutput, big endian):
+ * long gameTime, UTF dimension, long heart position (BlockPos.asLong), UTF entity id,
+ * int mobCount, int stackCount, long itemCount, long energy, int duration, byte outcome
+ */
+public class CycleJournalFile {
+
+    private static final String FILE_NAME = "journal";
+    private static final int FLUSH_BYTES = 16 * 1024;
+    private static final int ROTATED_FILES = 3;
+
+    private static final ByteArrayOutputStream buffer = new ByteArrayOutputStream(FLUSH_BYTES * 2);
+    private static final DataOutputStream out = new DataOutputStream(buffer);
+
+    private static ExecutorService writer = null;
+    private static Path directory = null;
+
+    /**
+     * Append a cycle event if the journal file is enabled
+     * Must be called on the server thread
+     */
+    public static void record(@Nonnull ServerLevel level, @Nonnull BlockPos pos, long time, @Nullable EntityType<?> type,
+                              int mobs, int stacks, long items, long power, int ticks, @Nonnull CycleJournal.Outcome result) {
+        if (!WootConfig.CYCLE_JOURNAL_FILE.get()) {
+            return;
+        }
+
+        if (directory == null) {
+            directory = level.getServer().getWorldPath(LevelResource.ROOT).resolve(Woot.MODID);
+        }
+
+        try {
+            out.writeLong(time);
+            out.writeUTF(level.dimension().location().toString());
+            out.writeLong(pos.asLong());
+            out.writeUTF(type != null ? BuiltInRegistries.ENTITY_TYPE.getKey(type).toString() : "");
+            out.writeInt(mobs);
+            out.writeInt(stacks);
+            out.writeLong(items);
+            out.writeLong(power);
+            out.writeInt(ticks);
+            out.writeByte(result.ordinal());
+        } catch (IOException e) {
+            // Writing to a byte array does not fail
+        }
+
+        if (buffer.size() >= FLUSH_BYTES) {
+            flush();
+        }
+    }
+
+    /**
+     * Hand the buffered events to the writer thread
+     */
+    public static void flush() {
+        if (buffer.size() == 0 || directory == null) {
+            return;
+        }
+
+        byte[] bytes = buffer.toByteArray();
+        buffer.reset();
+
+        Path dir = directory;
+        long maxBytes = WootConfig.CYCLE_JOURNAL_FILE_MAX_KB.get() * 1024L;
+        getWriter().execute(() -> append(dir, bytes, maxBytes));
+    }
+
+    /**
+     * Write out everything buffered and stop the writer thread (server stop)
+     */
+    public static void shutdown() {
+        flush();
+        directory = null;
+
+        if (writer != null) {
+            writer.shutdown();
+            try {
+                if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                    Woot.LOGGER.warn("Timed out writing the cycle journal");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+    }
+
+    private static ExecutorService getWriter() {
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Woot Journal Writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return writer;
+    }
+
+    private static void append(@Nonnull Path dir, @Nonnull byte[] bytes, long maxBytes) {
+        try {
+            Files.createDirectories(dir);
+            Path file = dir.resolve(FILE_NAME + ".bin");
+            if (Files.exists(file) && Files.size(file) + bytes.length > maxBytes) {
+                rotate(dir);
+            }
+            Files.write(file, bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            Woot.LOGGER.warn("Failed to write the cycle journal: {}", e.getMessage());
+        }
+    }
+
+    private static void rotate(@Nonnull Path dir) throws IOException {
+        Files.deleteIfExists(dir.resolve(FILE_NAME + "." + ROTATED_FILES + ".bin"));
+        for (int i = ROTATED_FILES - 1; i >= 1; i--) {
+            Path from = dir.resolve(FILE_NAME + "." + i + ".bin");
+            if (Files.exists(from)) {
+                Files.move(from, dir.resolve(FILE_NAME + "." + (i + 1) + ".bin"), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(dir.resolve(FILE_NAME + ".bin"), dir.resolve(FILE_NAME + ".1.bin"), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
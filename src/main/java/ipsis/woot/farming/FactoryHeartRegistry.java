@@ -0,0 +1,114 @@
+package ipsis.woot.farming;
+
+import ipsis.woot.blockentities.FactoryHeartBlockEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Level-wide index of the loaded factory hearts, bucketed by chunk section
+ *
+ * Lets a block change find the hearts around it by looking in the few sections the search box
+ * covers instead of asking every position in the box for its block entity.
+ * Hearts add themselves when loaded and remove themselves when removed or unloaded.
+ */
+public class FactoryHeartRegistry {
+
+    // One registry per server level
+    private static final Map<ServerLevel, FactoryHeartRegistry> REGISTRIES = new WeakHashMap<>();
+
+    // SectionPos.asLong -> hearts in that section
+    private final Map<Long, List<FactoryHeartBlockEntity>> sections = new HashMap<>();
+
+    /**
+     * Get (or create) the registry for a level
+     */
+    @Nonnull
+    public static FactoryHeartRegistry get(@Nonnull ServerLevel level) {
+        return REGISTRIES.computeIfAbsent(level, l -> new FactoryHeartRegistry());
+    }
+
+    /**
+     * Get the registry for a level without creating one
+     */
+    @Nullable
+    public static FactoryHeartRegistry find(@Nonnull ServerLevel level) {
+        return REGISTRIES.get(level);
+    }
+
+    /**
+     * Drop the registry for a level (called on level unload)
+     */
+    public static void remove(@Nonnull ServerLevel level) {
+        REGISTRIES.remove(level);
+    }
+
+    /**
+     * Add a heart, does nothing if it is already registered
+     */
+    public void add(@Nonnull FactoryHeartBlockEntity heart) {
+        List<FactoryHeartBlockEntity> hearts = sections.computeIfAbsent(getKey(heart.getBlockPos()), k -> new ArrayList<>(1));
+        if (!hearts.contains(heart)) {
+            hearts.add(heart);
+        }
+    }
+
+    /**
+     * Remove a heart
+     */
+    public void remove(@Nonnull FactoryHeartBlockEntity heart) {
+        long key = getKey(heart.getBlockPos());
+        List<FactoryHeartBlockEntity> hearts = sections.get(key);
+        if (hearts != null && hearts.remove(heart) && hearts.isEmpty()) {
+            sections.remove(key);
+        }
+    }
+
+    /**
+     * Visit every heart within a box around a position
+     *
+     * @param horizontal Maximum X/Z distance from pos
+     * @param vertical Maximum Y distance from pos
+     */
+    public void forEachNear(@Nonnull BlockPos pos, int horizontal, int vertical, @Nonnull Consumer<FactoryHeartBlockEntity> action) {
+        int minX = pos.getX() - horizontal, maxX = pos.getX() + horizontal;
+        int minY = pos.getY() - vertical, maxY = pos.getY() + vertical;
+        int minZ = pos.getZ() - horizontal, maxZ = pos.getZ() + horizontal;
+
+        // Collect first - the action may wake hearts or change the structure, but never the registry
+        List<FactoryHeartBlockEntity> found = new ArrayList<>();
+        for (int sx = SectionPos.blockToSectionCoord(minX); sx <= SectionPos.blockToSectionCoord(maxX); sx++) {
+            for (int sy = SectionPos.blockToSectionCoord(minY); sy <= SectionPos.blockToSectionCoord(maxY); sy++) {
+                for (int sz = SectionPos.blockToSectionCoord(minZ); sz <= SectionPos.blockToSectionCoord(maxZ); sz++) {
+                    List<FactoryHeartBlockEntity> hearts = sections.get(SectionPos.asLong(sx, sy, sz));
+                    if (hearts == null) {
+                        continue;
+                    }
+                    for (FactoryHeartBlockEntity heart : hearts) {
+                        BlockPos heartPos = heart.getBlockPos();
+                        if (!heart.isRemoved()
+                                && heartPos.getX() >= minX && heartPos.getX() <= maxX
+                                && heartPos.getY() >= minY && heartPos.getY() <= maxY
+                                && heartPos.getZ() >= minZ && heartPos.getZ() <= maxZ) {
+                            found.add(heart);
+                        }
+                    }
+                }
+            }
+        }
+        found.forEach(action);
+    }
+
+    private static long getKey(@Nonnull BlockPos pos) {
+        return SectionPos.asLong(pos);
+    }
+}
@@ -0,0 +1,53 @@
+package ipsis.woot.farming;
+
+import ipsis.woot.power.PowerRecipe;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Spawn cycle economics shared by the factory heart and the headless simulator
+ * Plain arithmetic with no world access, so the simulator reproduces the in-game numbers exactly
+ */
+public class FactoryRules {
+
+    // Spawn cycle duration before the rate upgrade
+    public static final int BASE_SPAWN_TICKS = 320;
+
+    /**
+     * Power drawn per tick - recipe power with the efficiency multiplier plus upgrade power costs
+     */
+    public static int getPowerPerTick(@Nonnull PowerRecipe recipe, float efficiencyMultiplier, int upgradePowerCost) {
+        return (int) (recipe.getPowerPerTick() * efficiencyMultiplier) + upgradePowerCost;
+    }
+
+    /**
+     * Game ticks a cycle takes when the cells never run short
+     */
+    public static long getCycleTicks(@Nonnull PowerRecipe recipe, int powerPerTick) {
+        if (powerPerTick <= 0) {
+            return 1;
+        }
+        return Math.max(1, (recipe.getTotalPower() + powerPerTick - 1) / powerPerTick);
+    }
+
+    /**
+     * XP shards for a cycle - only with an XP upgrade installed
+     */
+    public static int getXPShardCount(int basePerMob, int mobCount, float xpMultiplier) {
+        if (xpMultiplier <= 1.0f) {
+            return 0;
+        }
+        return Math.round(basePerMob * mobCount * xpMultiplier);
+    }
+
+    /**
+     * Check if a factory can drop a tier shard
+     * Tier II shards drop from every factory, each higher shard needs a factory one tier below it
+     *
+     * @param factoryTier Factory tier level (1-4)
+     * @param shardTier Shard tier level (2-4)
+     */
+    public static boolean canDropShard(int factoryTier, int shardTier) {
+        return factoryTier >= shardTier - 1;
+    }
+}
@@ -0,0 +1,217 @@
+package ipsis.woot.farming;
+
+import ipsis.woot.blockentities.FactoryHeartBlockEntity;
+import ipsis.woot.config.WootConfig;
+import net.minecraft.server.level.ServerLevel;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Level-wide scheduler that owns every factory heart in a ServerLevel
+ *
+ * Hearts no longer tick themselves. Once per game tick the scheduler services them
+ * round-robin until the configured microsecond budget is used up. Hearts that were
+ * not reached stay at the front of the queue and are serviced first on the next tick,
+ * catching up on the ticks they missed (see FactoryHeartBlockEntity.runScheduledTick).
+ *
+ * Dormant hearts are parked outside the queue and cost nothing until they are woken, either by
+ * an event or at a game time they asked for.
+ */
+public class FactoryScheduler {
+
+    // One scheduler per server level
+    private static final Map<ServerLevel, FactoryScheduler> SCHEDULERS = new WeakHashMap<>();
+
+    private final ServerLevel level;
+
+    // Service order - the head of the queue is the next heart to run
+    private final ArrayDeque<FactoryHeartBlockEntity> queue = new ArrayDeque<>();
+    private final Set<FactoryHeartBlockEntity> members = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // Dormant hearts waiting for a wake event
+    private final Set<FactoryHeartBlockEntity> parked = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Timed wakes, soonest first - an entry outliving its park only costs the heart one extra visit
+    private final PriorityQueue<TimedWake> timers = new PriorityQueue<>(Comparator.comparingLong(TimedWake::gameTime));
+
+    // Statistics from the last game tick
+    private long lastTickNanos = 0;
+    private int lastTickServiced = 0;
+    private int lastTickDeferred = 0;
+
+    private FactoryScheduler(@Nonnull ServerLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * Get (or create) the scheduler for a level
+     */
+    @Nonnull
+    public static FactoryScheduler get(@Nonnull ServerLevel level) {
+        return SCHEDULERS.computeIfAbsent(level, FactoryScheduler::new);
+    }
+
+    /**
+     * Get the scheduler for a level without creating one
+     */
+    @Nullable
+    public static FactoryScheduler find(@Nonnull ServerLevel level) {
+        return SCHEDULERS.get(level);
+    }
+
+    /**
+     * Drop the scheduler for a level (called on level unload)
+     */
+    public static void remove(@Nonnull ServerLevel level) {
+        FactoryScheduler scheduler = SCHEDULERS.remove(level);
+        if (scheduler != null) {
+            scheduler.queue.clear();
+            scheduler.members.clear();
+            scheduler.parked.clear();
+            scheduler.timers.clear();
+        }
+    }
+
+    /**
+     * Add a heart to the schedule
+     */
+    public void add(@Nonnull FactoryHeartBlockEntity heart) {
+        if (members.add(heart)) {
+            if (heart.isDormant()) {
+                parked.add(heart);
+            } else {
+                queue.addLast(heart);
+            }
+        }
+    }
+
+    /**
+     * Remove a heart from the schedule
+     */
+    public void remove(@Nonnull FactoryHeartBlockEntity heart) {
+        if (members.remove(heart) && !parked.remove(heart)) {
+            queue.remove(heart);
+        }
+    }
+
+    /**
+     * Move a parked heart back into the service queue
+     */
+    public void wake(@Nonnull FactoryHeartBlockEntity heart) {
+        if (parked.remove(heart)) {
+            queue.addLast(heart);
+        }
+    }
+
+    /**
+     * Wake a heart at a game time, it should go dormant before then
+     */
+    public void wakeAt(@Nonnull FactoryHeartBlockEntity heart, long gameTime) {
+        timers.add(new TimedWake(heart, gameTime));
+    }
+
+    /**
+     * Service hearts for one game tick
+     * At least one heart is always serviced so the queue keeps moving even with a tiny budget
+     */
+    public void tick() {
+        long budgetNanos = WootConfig.FACTORY_TICK_BUDGET_MICROS.get() * 1000L;
+        long gameTime = level.getGameTime();
+        long start = System.nanoTime();
+
+        while (!timers.isEmpty() && timers.peek().gameTime() <= gameTime) {
+            FactoryHeartBlockEntity heart = timers.poll().heart();
+            if (parked.contains(heart)) {
+                heart.wake();
+            }
+        }
+
+        int toVisit = queue.size();
+        int serviced = 0;
+        while (toVisit-- > 0) {
+            FactoryHeartBlockEntity heart = queue.pollFirst();
+            if (heart == null) {
+                break;
+            }
+
+            if (heart.isRemoved()) {
+                members.remove(heart);
+                continue;
+            }
+
+            // Block entities only tick in block-ticking chunks - lazy and border chunks wait
+            if (!level.shouldTickBlocksAt(heart.getBlockPos())) {
+                heart.skipScheduledTick();
+                queue.addLast(heart);
+                continue;
+            }
+
+            heart.runScheduledTick(level, gameTime);
+            serviced++;
+
+            // Hearts that went dormant wait in the parked set until woken, hearts unregistered
+            // while running are dropped
+            if (members.contains(heart)) {
+                if (heart.isDormant()) {
+                    parked.add(heart);
+                } else {
+                    queue.addLast(heart);
+                }
+            }
+
+            if (budgetNanos > 0 && System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+        }
+
+        lastTickNanos = System.nanoTime() - start;
+        lastTickServiced = serviced;
+        lastTickDeferred = Math.max(0, toVisit);
+    }
+
+    /**
+     * Number of hearts owned by this scheduler
+     */
+    public int size() {
+        return members.size();
+    }
+
+    /**
+     * Number of dormant hearts
+     */
+    public int getParkedCount() {
+        return parked.size();
+    }
+
+    /**
+     * Time spent servicing hearts in the last game tick
+     */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    /**
+     * Hearts serviced in the last game tick
+     */
+    public int getLastTickServiced() {
+        return lastTickServiced;
+    }
+
+    /**
+     * Hearts carried over to the next game tick because the budget ran out
+     */
+    public int getLastTickDeferred() {
+        return lastTickDeferred;
+    }
+
+    private record TimedWake(@Nonnull FactoryHeartBlockEntity heart, long gameTime) {
+    }
+}
@@ -0,0 +1,117 @@
+package ipsis.woot.farmstructure;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Reads block states for a structure scan straight from the chunk sections covering a box
+ *
+ * The chunks and sections are looked up once when the reader is created, after that a read is an
+ * array index and a section palette lookup instead of the full Level.getBlockState path.
+ * Chunks that are not loaded are never loaded - their positions report as not loaded and read
+ * as void air, as do positions outside the box or the build height.
+ */
+public class ChunkSectionReader {
+
+    private static final BlockState VOID = Blocks.VOID_AIR.defaultBlockState();
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+
+    private final int minChunkX, minChunkZ, minSectionY;
+    private final int chunksX, chunksZ, sectionsY;
+    private final boolean[] loaded;
+    private final LevelChunkSection[] sections;
+
+    /**
+     * @param min Lowest world position of the box, inclusive
+     * @param max Highest world position of the box, inclusive
+     */
+    public ChunkSectionReader(@Nonnull Level level, @Nonnull BlockPos min, @Nonnull BlockPos max) {
+        minChunkX = SectionPos.blockToSectionCoord(min.getX());
+        minChunkZ = SectionPos.blockToSectionCoord(min.getZ());
+        chunksX = SectionPos.blockToSectionCoord(max.getX()) - minChunkX + 1;
+        chunksZ = SectionPos.blockToSectionCoord(max.getZ()) - minChunkZ + 1;
+
+        // Clamp to the build height, anything outside reads as void air
+        int minY = Math.max(min.getY(), level.getMinBuildHeight());
+        int maxY = Math.min(max.getY(), level.getMaxBuildHeight() - 1);
+        minSectionY = SectionPos.blockToSectionCoord(minY);
+        sectionsY = Math.max(0, SectionPos.blockToSectionCoord(maxY) - minSectionY + 1);
+
+        loaded = new boolean[chunksX * chunksZ];
+        sections = new LevelChunkSection[chunksX * chunksZ * sectionsY];
+
+        for (int cx = 0; cx < chunksX; cx++) {
+            for (int cz = 0; cz < chunksZ; cz++) {
+                // getChunkNow never loads or generates a chunk
+                LevelChunk chunk = level.getChunkSource().getChunkNow(minChunkX + cx, minChunkZ + cz);
+                if (chunk == null) {
+                    continue;
+                }
+
+                loaded[cx * chunksZ + cz] = true;
+                LevelChunkSection[] chunkSections = chunk.getSections();
+                for (int sy = 0; sy < sectionsY; sy++) {
+                    int index = chunk.getSectionIndexFromSectionY(minSectionY + sy);
+                    if (index >= 0 && index < chunkSections.length) {
+                        sections[(cx * chunksZ + cz) * sectionsY + sy] = chunkSections[index];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if a world position is inside the box and its chunk was loaded
+     */
+    public boolean isLoaded(int x, int z) {
+        int column = columnIndex(x, z);
+        return column >= 0 && loaded[column];
+    }
+
+    /**
+     * Block state at a world position
+     */
+    @Nonnull
+    public BlockState getBlockState(int x, int y, int z) {
+        LevelChunkSection section = getSection(x, y, z);
+        if (section == null) {
+            return VOID;
+        }
+        if (section.hasOnlyAir()) {
+            return AIR;
+        }
+        return section.getBlockState(x & 15, y & 15, z & 15);
+    }
+
+    @Nonnull
+    public BlockState getBlockState(@Nonnull BlockPos pos) {
+        return getBlockState(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    @Nullable
+    private LevelChunkSection getSection(int x, int y, int z) {
+        int column = columnIndex(x, z);
+        int sy = SectionPos.blockToSectionCoord(y) - minSectionY;
+        if (column < 0 || sy < 0 || sy >= sectionsY) {
+            return null;
+        }
+        return sections[column * sectionsY + sy];
+    }
+
+    private int columnIndex(int x, int z) {
+        int cx = SectionPos.blockToSectionCoord(x) - minChunkX;
+        int cz = SectionPos.blockToSectionCoord(z) - minChunkZ;
+        if (cx < 0 || cz < 0 || cx >= chunksX || cz >= chunksZ) {
+            return -1;
+        }
+        return cx * chunksZ + cz;
+    }
+}
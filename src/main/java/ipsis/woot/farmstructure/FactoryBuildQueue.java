@@ -0,0 +1,203 @@
+package ipsis.woot.farmstructure;
+
+import ipsis.woot.Woot;
+import ipsis.woot.blockentities.FactoryHeartBlockEntity;
+import ipsis.woot.config.WootConfig;
+import ipsis.woot.util.WootBlockNotifier;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
+
+/**
+ * Level-wide queue of factory builds started with the factory builder
+ *
+ * Each tick places up to the configured number of blocks, oldest build first. Blocks are placed
+ * without neighbour updates and with heart notifications suppressed, and the heart is marked dirty
+ * once when its build finishes, so a whole factory costs one structure scan.
+ * The items for a build are taken from the player when it is queued, and given back to them for
+ * placements that cannot be made, or that are still queued when the level goes away.
+ */
+public class FactoryBuildQueue {
+
+    // One queue per server level
+    private static final Map<ServerLevel, FactoryBuildQueue> QUEUES = new WeakHashMap<>();
+
+    private final Deque<Build> builds = new ArrayDeque<>();
+    // Builds that finished placing this tick, waiting for their heart to be marked dirty
+    private final List<Build> finished = new ArrayList<>();
+
+    /**
+     * Get (or create) the queue for a level
+     */
+    @Nonnull
+    public static FactoryBuildQueue get(@Nonnull ServerLevel level) {
+        return QUEUES.computeIfAbsent(level, l -> new FactoryBuildQueue());
+    }
+
+    /**
+     * Get the queue for a level without creating one
+     */
+    @Nullable
+    public static FactoryBuildQueue find(@Nonnull ServerLevel level) {
+        return QUEUES.get(level);
+    }
+
+    /**
+     * Drop the queue for a level, refunding the blocks not placed yet
+     * Called when the server stops, while the players are still online, and again on level unload
+     */
+    public static void remove(@Nonnull ServerLevel level) {
+        FactoryBuildQueue queue = QUEUES.remove(level);
+        if (queue != null) {
+            for (Build build : queue.builds) {
+                build.refundRemaining(level);
+            }
+            queue.builds.clear();
+        }
+    }
+
+    /**
+     * Check if a build for a heart position is still running
+     */
+    public boolean isBuilding(@Nonnull BlockPos heartPos) {
+        for (Build build : builds) {
+            if (build.heartPos.equals(heartPos)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Queue a build, the placements are done in list order
+     *
+     * @param player The player the items were taken from
+     */
+    public void add(@Nonnull BlockPos heartPos, @Nonnull Player player, @Nonnull List<Placement> placements) {
+        // Creative players were not charged, so there is nothing to give back
+        UUID refundTo = player.getAbilities().instabuild ? null : player.getUUID();
+        builds.add(new Build(heartPos.immutable(), refundTo, placements));
+    }
+
+    /**
+     * Place this tick's share of blocks
+     */
+    public void tick(@Nonnull ServerLevel level) {
+        if (builds.isEmpty()) {
+            return;
+        }
+
+        int[] quota = {WootConfig.BUILDER_BLOCKS_PER_TICK.get()};
+        WootBlockNotifier.runSuppressed(() -> {
+            while (quota[0] > 0 && !builds.isEmpty()) {
+                Build build = builds.peek();
+                quota[0] -= build.place(level, quota[0]);
+                if (build.isDone()) {
+                    builds.poll();
+                }
+            }
+        });
+
+        // Notifications are back on, finished builds can be validated
+        for (Build build : finished) {
+            if (level.getBlockEntity(build.heartPos) instanceof FactoryHeartBlockEntity heart) {
+                heart.markStructureDirty();
+            }
+        }
+        finished.clear();
+    }
+
+    /**
+     * One block to place
+     */
+    public record Placement(@Nonnull BlockPos pos, @Nonnull BlockState state) {
+    }
+
+    private class Build {
+        private final BlockPos heartPos;
+        @Nullable
+        private final UUID refundTo;
+        private final List<Placement> placements;
+        private int next = 0;
+
+        private Build(@Nonnull BlockPos heartPos, @Nullable UUID refundTo, @Nonnull List<Placement> placements) {
+            this.heartPos = heartPos;
+            this.refundTo = refundTo;
+            this.placements = placements;
+        }
+
+        /**
+         * Place up to quota blocks
+         *
+         * @return the number of placements used up
+         */
+        private int place(@Nonnull ServerLevel level, int quota) {
+            int used = 0;
+            while (used < quota && next < placements.size()) {
+                Placement placement = placements.get(next++);
+                used++;
+
+                if (!level.isLoaded(placement.pos())) {
+                    // Never load chunks for a build - the heart is most likely unloaded too
+                    refund(level, new ItemStack(placement.state().getBlock()));
+                } else if (level.getBlockState(placement.pos()).canBeReplaced()) {
+                    level.setBlock(placement.pos(), placement.state(), Block.UPDATE_CLIENTS);
+                } else {
+                    // Something was put there since the build was queued, the item was already taken
+                    Woot.LOGGER.debug("Factory build at {} blocked at {}", heartPos, placement.pos());
+                    refund(level, new ItemStack(placement.state().getBlock()));
+                }
+            }
+
+            if (isDone()) {
+                finished.add(this);
+            }
+            return used;
+        }
+
+        /**
+         * Refund every placement not made yet and finish the build
+         */
+        private void refundRemaining(@Nonnull ServerLevel level) {
+            while (next < placements.size()) {
+                refund(level, new ItemStack(placements.get(next++).state().getBlock()));
+            }
+        }
+
+        /**
+         * Give the item for a placement back to the player, or drop it at the heart while they are offline
+         */
+        private void refund(@Nonnull ServerLevel level, @Nonnull ItemStack stack) {
+            if (refundTo == null) {
+                return;
+            }
+
+            ServerPlayer player = level.getServer().getPlayerList().getPlayer(refundTo);
+            if (player != null) {
+                player.getInventory().placeItemBackInInventory(stack);
+            } else if (level.isLoaded(heartPos)) {
+                Block.popResource(level, heartPos, stack);
+            } else {
+                Woot.LOGGER.warn("Factory build at {} could not refund {}, the player is offline", heartPos, stack);
+            }
+        }
+
+        private boolean isDone() {
+            return next >= placements.size();
+        }
+    }
+}
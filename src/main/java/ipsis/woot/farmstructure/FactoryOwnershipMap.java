@@ -0,0 +1,119 @@
+package ipsis.woot.farmstructure;
+
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Level-wide reverse index from block position to the heart of the formed factory it belongs to
+ *
+ * Covers the whole footprint of every formed structure: pattern modules, the heart, the
+ * cell/importer/exporter column, controllers and upgrade totems. Positions are packed with
+ * BlockPos.asLong, so a lookup is one primitive map read.
+ */
+public class FactoryOwnershipMap {
+
+    // One map per server level
+    private static final Map<ServerLevel, FactoryOwnershipMap> MAPS = new WeakHashMap<>();
+
+    // Not a valid block position (x would be far outside the world border)
+    private static final long NO_OWNER = Long.MIN_VALUE;
+
+    // position -> heart position
+    private final Long2LongOpenHashMap owners = new Long2LongOpenHashMap();
+    // heart position -> claimed positions
+    private final Long2ObjectOpenHashMap<long[]> footprints = new Long2ObjectOpenHashMap<>();
+
+    private FactoryOwnershipMap() {
+        owners.defaultReturnValue(NO_OWNER);
+    }
+
+    /**
+     * Get (or create) the map for a level
+     */
+    @Nonnull
+    public static FactoryOwnershipMap get(@Nonnull ServerLevel level) {
+        return MAPS.computeIfAbsent(level, l -> new FactoryOwnershipMap());
+    }
+
+    /**
+     * Get the map for a level without creating one
+     */
+    @Nullable
+    public static FactoryOwnershipMap find(@Nonnull ServerLevel level) {
+        return MAPS.get(level);
+    }
+
+    /**
+     * Drop the map for a level (called on level unload)
+     */
+    public static void remove(@Nonnull ServerLevel level) {
+        MAPS.remove(level);
+    }
+
+    /**
+     * Heart of the factory owning a position, null if no formed factory covers it
+     */
+    @Nullable
+    public BlockPos getOwner(@Nonnull BlockPos pos) {
+        long owner = owners.get(pos.asLong());
+        return owner != NO_OWNER ? BlockPos.of(owner) : null;
+    }
+
+    /**
+     * Check if any of the positions belongs to a factory other than the given heart's
+     */
+    public boolean overlaps(@Nonnull BlockPos heartPos, @Nonnull Collection<BlockPos> positions) {
+        long heart = heartPos.asLong();
+        for (BlockPos pos : positions) {
+            long owner = owners.get(pos.asLong());
+            if (owner != NO_OWNER && owner != heart) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Claim a factory's footprint, replacing anything the heart claimed before
+     */
+    public void claim(@Nonnull BlockPos heartPos, @Nonnull Collection<BlockPos> positions) {
+        release(heartPos);
+
+        long heart = heartPos.asLong();
+        long[] footprint = new long[positions.size()];
+        int i = 0;
+        for (BlockPos pos : positions) {
+            footprint[i++] = pos.asLong();
+            owners.put(pos.asLong(), heart);
+        }
+        footprints.put(heart, footprint);
+    }
+
+    /**
+     * Release everything a heart claimed
+     *
+     * @return true if the heart had a claim
+     */
+    public boolean release(@Nonnull BlockPos heartPos) {
+        long heart = heartPos.asLong();
+        long[] footprint = footprints.remove(heart);
+        if (footprint == null) {
+            return false;
+        }
+        for (long pos : footprint) {
+            // Only drop positions still pointing at this heart
+            if (owners.get(pos) == heart) {
+                owners.remove(pos);
+            }
+        }
+        return true;
+    }
+}
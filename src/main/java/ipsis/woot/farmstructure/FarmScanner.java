@@ -6,6 +6,7 @@ import ipsis.woot.blockentities.FactoryControllerBlockEntity;
 import ipsis.woot.blocks.FactoryCellBlock;
 import ipsis.woot.farming.EnumFarmUpgrade;
 import ipsis.woot.items.data.EnderShardData;
+import ipsis.woot.jfr.StructureScanEvent;
 import ipsis.woot.multiblock.EnumMobFactoryModule;
 import ipsis.woot.multiblock.EnumMobFactoryTier;
 import ipsis.woot.multiblock.FactoryPatternRepository;
@@ -18,20 +19,48 @@ import net.minecraft.world.level.block.state.BlockState;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Scans and validates the 3D multiblock structure
  * Checks if blocks match the tier patterns from FactoryPatternRepository
+ * Holds nothing but the shared patterns and the scan box, so one scanner serves every heart
  */
 public class FarmScanner {
 
     private final FactoryPatternRepository patternRepository;
 
+    // Box read around the heart - every tier's pattern plus the component column below the heart
+    // and the upgrade totems above the bases
+    private final BlockPos scanMin;
+    private final BlockPos scanMax;
+
     public FarmScanner() {
-        this.patternRepository = new FactoryPatternRepository();
+        this.patternRepository = FactoryPatternRepository.get();
+
+        int minX = 0, minY = -4, minZ = 0, maxX = 0, maxY = 0, maxZ = 0;
+        for (EnumMobFactoryTier tier : EnumMobFactoryTier.values()) {
+            BlockPos min = patternRepository.getMinOffset(tier);
+            BlockPos max = patternRepository.getMaxOffset(tier);
+            minX = Math.min(minX, min.getX());
+            minY = Math.min(minY, min.getY());
+            minZ = Math.min(minZ, min.getZ());
+            maxX = Math.max(maxX, max.getX());
+            maxY = Math.max(maxY, max.getY());
+            maxZ = Math.max(maxZ, max.getZ());
+            for (BlockPos base : patternRepository.getModulePositions(tier, EnumMobFactoryModule.STRUCTURE_UPGRADE)) {
+                maxY = Math.max(maxY, base.getY() + 3);
+            }
+        }
+        this.scanMin = new BlockPos(minX, minY, minZ);
+        this.scanMax = new BlockPos(maxX, maxY, maxZ);
     }
 
     /**
@@ -40,117 +69,286 @@ public class FarmScanner {
      */
     @Nullable
     public ScannedFarm scanFarm(@Nonnull Level level, @Nonnull BlockPos heartPos) {
-        Woot.LOGGER.info("=== FACTORY STRUCTURE SCAN START at {} ===", heartPos);
+        return scanSnapshot(capture(level, heartPos));
+    }
+
+    /**
+     * Read everything a scan needs around the heart
+     * Must be called on the server thread
+     */
+    @Nonnull
+    public StructureSnapshot capture(@Nonnull Level level, @Nonnull BlockPos heartPos) {
+        return StructureSnapshot.capture(level, heartPos, scanMin, scanMax);
+    }
+
+    /**
+     * Validate the multiblock structure in a snapshot
+     * Needs no world access, so it can run on a worker thread
+     *
+     * All tier patterns are matched against the snapshot in a single pass, so a lower tier does
+     * not read the blocks a higher tier already read.
+     */
+    @Nullable
+    public ScannedFarm scanSnapshot(@Nonnull StructureSnapshot snapshot) {
+        BlockPos heartPos = snapshot.getOrigin();
+        StructureScanEvent event = new StructureScanEvent();
+        event.begin();
+        Woot.LOGGER.debug("Factory structure scan at {}", heartPos);
 
-        // Try each tier from highest to lowest to match the largest valid structure
+        boolean[] patternMatches = matchPatterns(snapshot);
+
+        // Try the largest matching tier first
         // EnumMobFactoryTier.values() returns [TIER_I, TIER_II, TIER_III, TIER_IV]
-        // We need to iterate in reverse to try higher tiers first
         EnumMobFactoryTier[] tiers = EnumMobFactoryTier.values();
-        for (int i = tiers.length - 1; i >= 0; i--) {
-            Woot.LOGGER.info("Attempting to validate as {} structure...", tiers[i]);
-            ScannedFarm farm = tryTier(level, heartPos, tiers[i]);
-            if (farm != null) {
-                Woot.LOGGER.info("=== SUCCESS: Structure validated as {} ===", tiers[i]);
-                return farm;
-            } else {
-                Woot.LOGGER.info("{} validation FAILED, trying next tier", tiers[i]);
+        ScannedFarm result = null;
+        int tiersTried = 0;
+        for (int i = tiers.length - 1; i >= 0 && result == null; i--) {
+            if (patternMatches[i]) {
+                tiersTried++;
+                result = tryTier(snapshot, tiers[i]);
             }
         }
 
-        Woot.LOGGER.warn("=== FAILURE: No valid factory structure found at {} ===", heartPos);
-        return null;
+        if (result != null) {
+            Woot.LOGGER.info("Factory structure at {} validated as {}", heartPos, result.getTier());
+        } else {
+            Woot.LOGGER.debug("No valid factory structure found at {}", heartPos);
+        }
+
+        if (event.shouldCommit()) {
+            event.setFactory(heartPos,
+                result != null ? result.getTier().getLevel() : 0,
+                result != null && result.isProgrammed() ? result.getProgrammedMob().entityKey() : null);
+            event.tiersTried = tiersTried;
+            event.valid = result != null;
+            event.commit();
+        }
+        return result;
     }
 
     /**
-     * Try to validate the structure as a specific tier
+     * Match every tier's pattern modules against the snapshot in one pass over the box
+     *
+     * @return For each tier (by ordinal), whether all of its modules are in place
      */
-    @Nullable
-    private ScannedFarm tryTier(@Nonnull Level level, @Nonnull BlockPos heartPos, @Nonnull EnumMobFactoryTier tier) {
-        List<FactoryPatternRepository.MobFactoryModule> modules = patternRepository.getAllModules(tier);
-        Woot.LOGGER.info("  {} pattern has {} module positions to validate", tier, modules.size());
+    @Nonnull
+    private boolean[] matchPatterns(@Nonnull StructureSnapshot snapshot) {
+        EnumMobFactoryTier[] tiers = EnumMobFactoryTier.values();
+        boolean[] matches = new boolean[tiers.length];
+        Arrays.fill(matches, true);
+        int remaining = tiers.length;
+
+        for (int dy = scanMin.getY(); dy <= scanMax.getY() && remaining > 0; dy++) {
+            for (int dz = scanMin.getZ(); dz <= scanMax.getZ() && remaining > 0; dz++) {
+                for (int dx = scanMin.getX(); dx <= scanMax.getX() && remaining > 0; dx++) {
+                    // Unloaded positions match nothing
+                    Block block = snapshot.isLoaded(dx, dy, dz) ? snapshot.getBlockState(dx, dy, dz).getBlock() : null;
+                    for (int t = 0; t < tiers.length; t++) {
+                        if (!matches[t]) {
+                            continue;
+                        }
+                        EnumMobFactoryModule module = patternRepository.getModule(tiers[t], dx, dy, dz);
+                        if (module != null && (block == null || !matchesModule(block, module))) {
+                            Woot.LOGGER.debug("  {} mismatch at offset ({}, {}, {}): expected {}",
+                                tiers[t], dx, dy, dz, module);
+                            matches[t] = false;
+                            remaining--;
+                        }
+                    }
+                }
+            }
+        }
+        return matches;
+    }
 
+    /**
+     * Finish validating a tier whose pattern modules all matched
+     */
+    @Nullable
+    private ScannedFarm tryTier(@Nonnull StructureSnapshot snapshot, @Nonnull EnumMobFactoryTier tier) {
+        BlockPos heartPos = snapshot.getOrigin();
         ScannedFarm farm = new ScannedFarm(heartPos, tier);
-        int validatedCount = 0;
-
-        // Validate all modules in the pattern
-        for (FactoryPatternRepository.MobFactoryModule module : modules) {
-            BlockPos offset = module.getOffset();
-            BlockPos worldPos = heartPos.offset(offset);
 
-            if (!validateModule(level, worldPos, tier, module.getModuleType(), farm)) {
-                Woot.LOGGER.info("  {} validation STOPPED: Module validation failed at {} (offset {})",
-                    tier, worldPos, offset);
-                return null;  // Invalid structure
-            }
-            validatedCount++;
+        // Upgrade totems above the upgrade bases
+        for (BlockPos offset : patternRepository.getModulePositions(tier, EnumMobFactoryModule.STRUCTURE_UPGRADE)) {
+            addUpgradeTotem(snapshot::getBlockState, heartPos.offset(offset), tier, farm);
         }
-        Woot.LOGGER.info("  {} pattern modules validated: {}/{}", tier, validatedCount, modules.size());
 
         // Validate battery position (below heart with air gap)
-        if (!validateBatteryPosition(level, heartPos, farm)) {
-            Woot.LOGGER.info("  {} validation STOPPED: Battery/component validation failed", tier);
+        if (!validateBatteryPosition(snapshot, farm)) {
+            Woot.LOGGER.debug("  {} validation stopped: battery/component validation failed", tier);
             return null;  // Invalid structure - no battery or air gap
         }
-        Woot.LOGGER.info("  {} battery and components validated", tier);
 
-        // Scan for required components (importer, exporter, controller)
-        if (!scanForRequiredComponents(level, heartPos, tier, farm)) {
-            Woot.LOGGER.info("  {} validation STOPPED: Missing required components", tier);
+        // Scan for required components (controller)
+        if (!scanForRequiredComponents(snapshot, tier, farm)) {
+            Woot.LOGGER.debug("  {} validation stopped: missing required components", tier);
             return null;  // Invalid structure - missing required components
         }
-        Woot.LOGGER.info("  {} required components found", tier);
 
         // Check if we have a programmed controller
-        farm.setProgrammedMob(findProgrammedMob(level, farm.getControllerPositions()));
-
-        Woot.LOGGER.info("  {} structure fully validated at {}", tier, heartPos);
+        for (BlockPos pos : farm.getControllerPositions()) {
+            EnderShardData mob = snapshot.getProgrammedMob(pos);
+            if (mob != null) {
+                farm.setProgrammedMob(mob);
+                break;
+            }
+        }
         return farm;
     }
 
     /**
-     * Validate a specific module position matches the pattern
+     * Check if a block is the one a module position needs
      */
-    private boolean validateModule(@Nonnull Level level, @Nonnull BlockPos pos,
-                                    @Nonnull EnumMobFactoryTier tier,
-                                    @Nonnull EnumMobFactoryModule expectedModule,
-                                    @Nonnull ScannedFarm farm) {
-        if (!level.isLoaded(pos)) {
-            return false;
+    private boolean matchesModule(@Nonnull Block block, @Nonnull EnumMobFactoryModule module) {
+        return block == module.getBlock();
+    }
+
+    private void addUpgradeTotem(@Nonnull Function<BlockPos, BlockState> blocks, @Nonnull BlockPos basePos,
+                                 @Nonnull EnumMobFactoryTier tier, @Nonnull ScannedFarm farm) {
+        UpgradeScanner.UpgradeInfo upgradeInfo = UpgradeScanner.scanUpgradeTotem(blocks, basePos, tier);
+        if (upgradeInfo != null) {
+            farm.addUpgradeTotem(upgradeInfo.getType(), upgradeInfo.getTier(), upgradeInfo.getPositions());
         }
+    }
 
-        BlockState state = level.getBlockState(pos);
-        Block block = state.getBlock();
-
-        // Match block to expected module type
-        boolean valid = switch (expectedModule) {
-            case STRUCTURE_BLOCK_1 -> block == Woot.STRUCTURE_BLOCK_1.get();
-            case STRUCTURE_BLOCK_2 -> block == Woot.STRUCTURE_BLOCK_2.get();
-            case STRUCTURE_BLOCK_3 -> block == Woot.STRUCTURE_BLOCK_3.get();
-            case STRUCTURE_BLOCK_4 -> block == Woot.STRUCTURE_BLOCK_4.get();
-            case STRUCTURE_BLOCK_5 -> block == Woot.STRUCTURE_BLOCK_5.get();
-            case STRUCTURE_UPGRADE -> {
-                boolean validBase = block == Woot.STRUCTURE_BLOCK_UPGRADE.get();
-                if (validBase) {
-                    // Scan for upgrade totem (vertical stack of 1-3 blocks) above the upgrade base
-                    UpgradeScanner.UpgradeInfo upgradeInfo = UpgradeScanner.scanUpgradeTotem(level, pos, tier);
-                    if (upgradeInfo != null) {
-                        farm.addUpgradeTotem(upgradeInfo.getType(), upgradeInfo.getTier(), upgradeInfo.getPositions());
-                    }
+    /**
+     * Revalidate a formed farm after single block changes
+     *
+     * Only the changed positions are checked: pattern modules against the pattern, the upgrade
+     * totems and controllers are rescanned if a change touched them. Positions outside the farm's
+     * footprint are ignored, unless the block placed there could complete a higher tier.
+     *
+     * @return The updated farm, or null if the footprint could have changed and a full scan is needed
+     */
+    @Nullable
+    public ScannedFarm revalidate(@Nonnull Level level, @Nonnull ScannedFarm farm, @Nonnull Collection<BlockPos> changed) {
+        BlockPos heartPos = farm.getHeartPos();
+        EnumMobFactoryTier tier = farm.getTier();
+        ChunkSectionReader reader = new ChunkSectionReader(level, heartPos.offset(scanMin), heartPos.offset(scanMax));
+        boolean upgradesChanged = false;
+        boolean controllersChanged = false;
+
+        for (BlockPos pos : changed) {
+            int dx = pos.getX() - heartPos.getX();
+            int dy = pos.getY() - heartPos.getY();
+            int dz = pos.getZ() - heartPos.getZ();
+            if (dx < scanMin.getX() || dy < scanMin.getY() || dz < scanMin.getZ()
+                    || dx > scanMax.getX() || dy > scanMax.getY() || dz > scanMax.getZ()) {
+                // Outside every tier's footprint
+                continue;
+            }
+            if (!reader.isLoaded(pos.getX(), pos.getZ())) {
+                return null;
+            }
+
+            Block block = reader.getBlockState(pos).getBlock();
+
+            if (couldCompleteHigherTier(block, tier, dx, dy, dz)) {
+                return null;
+            }
+
+            EnumMobFactoryModule module = patternRepository.getModule(tier, dx, dy, dz);
+            if (module != null) {
+                if (!matchesModule(block, module)) {
+                    return null;
                 }
-                yield validBase;
+                upgradesChanged |= module == EnumMobFactoryModule.STRUCTURE_UPGRADE;
+            } else if (dx == 0 && dz == 0 && dy < 0 && dy >= -4) {
+                if (!hasComponents(reader::getBlockState, heartPos)) {
+                    return null;
+                }
+            } else {
+                upgradesChanged |= isTotemPosition(tier, dx, dy, dz);
+                controllersChanged |= patternRepository.isInBounds(tier, dx, dy, dz);
+            }
+        }
+
+        ScannedFarm updated = new ScannedFarm(heartPos, tier);
+        farm.getCellPositions().forEach(updated::addCellPosition);
+        farm.getImporterPositions().forEach(updated::addImporterPosition);
+        farm.getExporterPositions().forEach(updated::addExporterPosition);
+
+        if (upgradesChanged) {
+            for (BlockPos offset : patternRepository.getModulePositions(tier, EnumMobFactoryModule.STRUCTURE_UPGRADE)) {
+                addUpgradeTotem(reader::getBlockState, heartPos.offset(offset), tier, updated);
             }
-            case STRUCTURE_TIER_I_CAP -> block == Woot.STRUCTURE_TIER_I_CAP.get();
-            case STRUCTURE_TIER_II_CAP -> block == Woot.STRUCTURE_TIER_II_CAP.get();
-            case STRUCTURE_TIER_III_CAP -> block == Woot.STRUCTURE_TIER_III_CAP.get();
-            case STRUCTURE_TIER_IV_CAP -> block == Woot.STRUCTURE_TIER_IV_CAP.get();
-            default -> false;
-        };
+        } else {
+            for (Map.Entry<EnumFarmUpgrade, List<BlockPos>> entry : farm.getUpgradeTotemPositions().entrySet()) {
+                updated.addUpgradeTotem(entry.getKey(), farm.getUpgrades().get(entry.getKey()), entry.getValue());
+            }
+        }
 
-        if (!valid) {
-            Woot.LOGGER.info("    MISMATCH at {}: expected {}, found {}", pos, expectedModule, block.getName().getString());
+        for (BlockPos pos : farm.getControllerPositions()) {
+            if (!controllersChanged || !changed.contains(pos) || reader.getBlockState(pos).getBlock() == Woot.CONTROLLER.get()) {
+                updated.addControllerPosition(pos);
+            }
+        }
+        if (controllersChanged) {
+            for (BlockPos pos : changed) {
+                if (!updated.getControllerPositions().contains(pos)
+                        && patternRepository.isInBounds(tier, pos.getX() - heartPos.getX(),
+                            pos.getY() - heartPos.getY(), pos.getZ() - heartPos.getZ())
+                        && reader.getBlockState(pos).getBlock() == Woot.CONTROLLER.get()) {
+                    updated.addControllerPosition(pos.immutable());
+                }
+            }
+            if (updated.getControllerPositions().isEmpty()) {
+                return null;
+            }
+        }
+
+        // Programming a controller does not change any block, so always look again
+        updated.setProgrammedMob(findProgrammedMob(level, updated.getControllerPositions()));
+        return updated;
+    }
+
+    /**
+     * Every position a formed farm is made of: the heart, pattern modules, the cell/importer/exporter
+     * column, controllers and upgrade totems
+     */
+    @Nonnull
+    public Set<BlockPos> getFootprint(@Nonnull ScannedFarm farm) {
+        BlockPos heartPos = farm.getHeartPos();
+        Set<BlockPos> positions = new HashSet<>();
+        positions.add(heartPos);
+        for (FactoryPatternRepository.MobFactoryModule module : patternRepository.getAllModules(farm.getTier())) {
+            positions.add(heartPos.offset(module.getOffset()));
+        }
+        positions.addAll(farm.getCellPositions());
+        positions.addAll(farm.getImporterPositions());
+        positions.addAll(farm.getExporterPositions());
+        positions.addAll(farm.getControllerPositions());
+        for (List<BlockPos> totem : farm.getUpgradeTotemPositions().values()) {
+            positions.addAll(totem);
+        }
+        return positions;
+    }
+
+    /**
+     * Check if a block is what a higher tier than the current one needs at an offset
+     */
+    private boolean couldCompleteHigherTier(@Nonnull Block block, @Nonnull EnumMobFactoryTier tier, int dx, int dy, int dz) {
+        EnumMobFactoryTier[] tiers = EnumMobFactoryTier.values();
+        for (int i = tier.ordinal() + 1; i < tiers.length; i++) {
+            EnumMobFactoryModule module = patternRepository.getModule(tiers[i], dx, dy, dz);
+            if (module != null && matchesModule(block, module)) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        return valid;
+    /**
+     * Check if an offset is one of the totem blocks above an upgrade base
+     */
+    private boolean isTotemPosition(@Nonnull EnumMobFactoryTier tier, int dx, int dy, int dz) {
+        for (BlockPos base : patternRepository.getModulePositions(tier, EnumMobFactoryModule.STRUCTURE_UPGRADE)) {
+            if (base.getX() == dx && base.getZ() == dz && dy > base.getY() && dy <= base.getY() + 3) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -177,47 +375,56 @@ public class FarmScanner {
      * heart.below(4) = exporter
      * @return true if all components are correctly positioned
      */
-    private boolean validateBatteryPosition(@Nonnull Level level, @Nonnull BlockPos heartPos, @Nonnull ScannedFarm farm) {
+    private boolean validateBatteryPosition(@Nonnull StructureSnapshot snapshot, @Nonnull ScannedFarm farm) {
+        BlockPos heartPos = snapshot.getOrigin();
+        if (!hasComponents(snapshot::getBlockState, heartPos)) {
+            return false;
+        }
+
+        // Add all components to farm
+        farm.addCellPosition(heartPos.below(2));
+        farm.addImporterPosition(heartPos.below(3));
+        farm.addExporterPosition(heartPos.below(4));
+        return true;
+    }
+
+    /**
+     * Check the air gap, battery, importer and exporter column below the heart
+     */
+    private boolean hasComponents(@Nonnull Function<BlockPos, BlockState> blocks, @Nonnull BlockPos heartPos) {
         BlockPos airGapPos = heartPos.below(1);
         BlockPos batteryPos = heartPos.below(2);
         BlockPos importerPos = heartPos.below(3);
         BlockPos exporterPos = heartPos.below(4);
 
         // Check air gap at heart.below(1)
-        BlockState airGapState = level.getBlockState(airGapPos);
+        BlockState airGapState = blocks.apply(airGapPos);
         if (!airGapState.isAir()) {
             Woot.LOGGER.debug("Structure invalid: No air gap at {} (found: {})", airGapPos, airGapState.getBlock());
             return false;
         }
 
         // Check battery at heart.below(2)
-        Block batteryBlock = level.getBlockState(batteryPos).getBlock();
+        Block batteryBlock = blocks.apply(batteryPos).getBlock();
         if (!(batteryBlock instanceof FactoryCellBlock)) {
             Woot.LOGGER.debug("Structure invalid: No battery at {} (found: {})", batteryPos, batteryBlock);
             return false;
         }
 
         // Check importer at heart.below(3)
-        Block importerBlock = level.getBlockState(importerPos).getBlock();
+        Block importerBlock = blocks.apply(importerPos).getBlock();
         if (importerBlock != Woot.IMPORTER.get()) {
             Woot.LOGGER.debug("Structure invalid: No importer at {} (found: {})", importerPos, importerBlock);
             return false;
         }
 
         // Check exporter at heart.below(4)
-        Block exporterBlock = level.getBlockState(exporterPos).getBlock();
+        Block exporterBlock = blocks.apply(exporterPos).getBlock();
         if (exporterBlock != Woot.EXPORTER.get()) {
             Woot.LOGGER.debug("Structure invalid: No exporter at {} (found: {})", exporterPos, exporterBlock);
             return false;
         }
 
-        // Add all components to farm
-        farm.addCellPosition(batteryPos);
-        farm.addImporterPosition(importerPos);
-        farm.addExporterPosition(exporterPos);
-
-        Woot.LOGGER.debug("All required components found: battery at {}, importer at {}, exporter at {}",
-            batteryPos, importerPos, exporterPos);
         return true;
     }
 
@@ -225,50 +432,30 @@ public class FarmScanner {
      * Scan for controller within the structure bounds
      * @return true if controller found
      */
-    private boolean scanForRequiredComponents(@Nonnull Level level, @Nonnull BlockPos heartPos,
+    private boolean scanForRequiredComponents(@Nonnull StructureSnapshot snapshot,
                                               @Nonnull EnumMobFactoryTier tier, @Nonnull ScannedFarm farm) {
         // Battery, importer, and exporter are already validated by validateBatteryPosition()
         // Now scan for controller within structure bounds
+        BlockPos min = patternRepository.getMinOffset(tier);
+        BlockPos max = patternRepository.getMaxOffset(tier);
+        BlockPos heartPos = snapshot.getOrigin();
 
-        // Get all pattern modules to determine search bounds
-        List<FactoryPatternRepository.MobFactoryModule> modules = patternRepository.getAllModules(tier);
-
-        // Calculate structure bounds
-        int minX = 0, maxX = 0, minY = 0, maxY = 0, minZ = 0, maxZ = 0;
-        for (FactoryPatternRepository.MobFactoryModule module : modules) {
-            BlockPos offset = module.getOffset();
-            minX = Math.min(minX, offset.getX());
-            maxX = Math.max(maxX, offset.getX());
-            minY = Math.min(minY, offset.getY());
-            maxY = Math.max(maxY, offset.getY());
-            minZ = Math.min(minZ, offset.getZ());
-            maxZ = Math.max(maxZ, offset.getZ());
-        }
-
-        // Scan all positions within structure bounds for controller
         boolean hasController = false;
-        for (int x = minX; x <= maxX; x++) {
-            for (int y = minY; y <= maxY; y++) {
-                for (int z = minZ; z <= maxZ; z++) {
-                    BlockPos checkPos = heartPos.offset(x, y, z);
-                    Block block = level.getBlockState(checkPos).getBlock();
-
-                    if (block == Woot.CONTROLLER.get()) {
+        for (int x = min.getX(); x <= max.getX(); x++) {
+            for (int y = min.getY(); y <= max.getY(); y++) {
+                for (int z = min.getZ(); z <= max.getZ(); z++) {
+                    if (snapshot.getBlockState(x, y, z).getBlock() == Woot.CONTROLLER.get()) {
                         hasController = true;
-                        farm.addControllerPosition(checkPos);
-                        Woot.LOGGER.debug("Controller found at {}", checkPos);
+                        farm.addControllerPosition(heartPos.offset(x, y, z));
                     }
                 }
             }
         }
 
         if (!hasController) {
-            Woot.LOGGER.debug("Structure invalid: Missing controller in bounds ({}:{}, {}:{}, {}:{})",
-                minX, maxX, minY, maxY, minZ, maxZ);
+            Woot.LOGGER.debug("Structure invalid: Missing controller in bounds {} to {}", min, max);
             return false;
         }
-
-        Woot.LOGGER.debug("Controller found in structure");
         return true;
     }
 
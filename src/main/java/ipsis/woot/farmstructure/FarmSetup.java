@@ -3,7 +3,6 @@ package ipsis.woot.farmstructure;
 import ipsis.woot.farming.EnumFarmUpgrade;
 import ipsis.woot.items.data.EnderShardData;
 import ipsis.woot.multiblock.EnumMobFactoryTier;
-import ipsis.woot.power.FactoryEnergyStorage;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.Level;
 
@@ -32,9 +31,6 @@ public class FarmSetup {
     private final List<BlockPos> importerPositions = new ArrayList<>();
     private final List<BlockPos> exporterPositions = new ArrayList<>();
 
-    // Aggregated energy storage from all cells
-    private FactoryEnergyStorage aggregatedEnergy;
-
     // Upgrade tracking - maps upgrade type to tier level (1-3)
     private final Map<EnumFarmUpgrade, Integer> upgrades = new HashMap<>();
 
@@ -155,35 +151,6 @@ public class FarmSetup {
         return exporterPositions;
     }
 
-    /**
-     * Set the aggregated energy storage
-     */
-    public void setAggregatedEnergy(FactoryEnergyStorage energy) {
-        this.aggregatedEnergy = energy;
-    }
-
-    /**
-     * Get the aggregated energy storage
-     */
-    @Nullable
-    public FactoryEnergyStorage getAggregatedEnergy() {
-        return aggregatedEnergy;
-    }
-
-    /**
-     * Get total energy stored across all cells
-     */
-    public int getTotalEnergyStored() {
-        return aggregatedEnergy != null ? aggregatedEnergy.getEnergyStored() : 0;
-    }
-
-    /**
-     * Get total energy capacity across all cells
-     */
-    public int getTotalEnergyCapacity() {
-        return aggregatedEnergy != null ? aggregatedEnergy.getMaxEnergyStored() : 0;
-    }
-
     // ========== UPGRADE SYSTEM ==========
 
     /**
@@ -288,8 +255,7 @@ public class FarmSetup {
 
     @Override
     public String toString() {
-        return String.format("FarmSetup{tier=%s, mob=%s, cells=%d, controllers=%d, energy=%d/%d, upgrades=%d}",
-            tier, getMobName(), cellPositions.size(), controllerPositions.size(),
-            getTotalEnergyStored(), getTotalEnergyCapacity(), upgrades.size());
+        return String.format("FarmSetup{tier=%s, mob=%s, cells=%d, controllers=%d, upgrades=%d}",
+            tier, getMobName(), cellPositions.size(), controllerPositions.size(), upgrades.size());
     }
 }
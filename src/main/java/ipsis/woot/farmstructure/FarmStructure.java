@@ -1,12 +1,14 @@
 package ipsis.woot.farmstructure;
 
 import ipsis.woot.Woot;
-import ipsis.woot.blockentities.FactoryCellBlockEntity;
 import ipsis.woot.blockentities.UpgradeBlockEntity;
 import ipsis.woot.blocks.UpgradeBlock;
+import ipsis.woot.config.WootConfig;
 import ipsis.woot.farmblocks.IFactoryGlueProvider;
-import ipsis.woot.power.FactoryEnergyStorage;
+import ipsis.woot.util.WootBlockNotifier;
+import ipsis.woot.util.WootWorkerPool;
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
@@ -15,24 +17,57 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Manages multiblock structure validation and formation
  * Phase 2: Basic structure validation
+ *
+ * Full scans are split in two: the blocks and controller programming are captured into a
+ * StructureSnapshot on the server thread, and the patterns are matched against it on the worker
+ * pool. The result is applied (glue connected/disconnected) on a later tick, on the server thread,
+ * unless the structure was marked dirty again in the meantime - then it is thrown away and the
+ * scan starts over.
+ *
+ * Block changes are debounced: a scan only starts once the structure has gone the configured quiet
+ * window without a change, so a factory built block by block is scanned once rather than once per
+ * block. A change always starts the quiet window afresh. Rescans asked for without a change of their
+ * own (a released claim nearby) back off instead: while the factory is not formed, every failed scan
+ * doubles the wait before the next one.
  */
 public class FarmStructure implements IFarmStructure {
 
     private Level level;
     private BlockPos origin;
 
+    // Above this many changed positions in a tick a full scan is cheaper
+    private static final int MAX_DIRTY_POSITIONS = 32;
+
     private boolean structureDirty = false;
+    private final Set<BlockPos> dirtyPositions = new HashSet<>();
     private boolean changed = false;
 
+    // Bumped on every dirty mark, a scan result from an older generation is stale
+    private int generation = 0;
+    private int pendingGeneration = 0;
+    @Nullable
+    private CompletableFuture<FarmScanner.ScannedFarm> pendingScan = null;
+
+    // Game time the next scan may start at
+    private long scanDueTick = 0;
+    private long lastScanTick = 0;
+    // Scans in a row that did not form the factory, never more than MAX_BACKOFF_SHIFT
+    private static final int MAX_BACKOFF_SHIFT = 10;
+    private int failedScans = 0;
+
     @Nullable
     private FarmScanner.ScannedFarm currentFarm = null;
 
-    private final FarmScanner scanner = new FarmScanner();
+    // The scanner holds no per-scan state, so every structure shares one (also from the worker pool)
+    private static final FarmScanner SCANNER = new FarmScanner();
 
     public FarmStructure() {
     }
@@ -40,6 +75,39 @@ public class FarmStructure implements IFarmStructure {
     @Override
     public void setStructureDirty() {
         this.structureDirty = true;
+        generation++;
+        // Explicit requests (load, placement, forced disconnect) are not debounced, only backed off
+        scanDueTick = currentFarm == null && failedScans > 0 && level != null ? lastScanTick + getBackoffTicks() : 0;
+    }
+
+    @Override
+    public void setStructureDirty(@Nonnull BlockPos changedPos) {
+        generation++;
+        debounceScan();
+        // Without a formed farm there is no footprint to check against
+        if (currentFarm == null || dirtyPositions.size() >= MAX_DIRTY_POSITIONS) {
+            structureDirty = true;
+        } else if (!structureDirty) {
+            dirtyPositions.add(changedPos.immutable());
+        }
+    }
+
+    /**
+     * Push the next scan back to the end of the quiet window
+     * A new change may be what completes the factory, so it never waits out the backoff
+     */
+    private void debounceScan() {
+        if (level == null) {
+            return;
+        }
+
+        failedScans = 0;
+        scanDueTick = level.getGameTime() + WootConfig.STRUCTURE_QUIET_TICKS.get();
+    }
+
+    private long getBackoffTicks() {
+        long base = Math.max(1, WootConfig.STRUCTURE_QUIET_TICKS.get());
+        return Math.min(base << failedScans, WootConfig.STRUCTURE_BACKOFF_MAX_TICKS.get());
     }
 
     @Override
@@ -60,18 +128,102 @@ public class FarmStructure implements IFarmStructure {
             return;
         }
 
+        if (pendingScan != null) {
+            if (!pendingScan.isDone()) {
+                return;
+            }
+            collectScan();
+        }
+
+        boolean dirty = structureDirty || !dirtyPositions.isEmpty();
+        if (dirty && level.getGameTime() < scanDueTick) {
+            // Still inside the quiet window or backing off
+            return;
+        }
+
         // Only validate when marked dirty (no periodic validation)
         if (structureDirty) {
             handleValidation();
-            structureDirty = false;
+        } else if (!dirtyPositions.isEmpty()) {
+            handleRevalidation();
         }
+        structureDirty = false;
+        dirtyPositions.clear();
     }
 
     /**
-     * Perform structure validation
+     * Perform structure validation - on the worker pool if it takes the job
      */
     private void handleValidation() {
-        FarmScanner.ScannedFarm scannedFarm = scanner.scanFarm(level, origin);
+        lastScanTick = level.getGameTime();
+        StructureSnapshot snapshot = SCANNER.capture(level, origin);
+
+        CompletableFuture<FarmScanner.ScannedFarm> future = new CompletableFuture<>();
+        boolean accepted = WootWorkerPool.execute(() -> {
+            try {
+                future.complete(SCANNER.scanSnapshot(snapshot));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+
+        if (accepted) {
+            pendingScan = future;
+            pendingGeneration = generation;
+        } else {
+            applyScan(SCANNER.scanSnapshot(snapshot));
+        }
+    }
+
+    /**
+     * Apply a finished worker scan, or throw it away if the structure changed since the capture
+     */
+    private void collectScan() {
+        CompletableFuture<FarmScanner.ScannedFarm> future = pendingScan;
+        pendingScan = null;
+
+        if (pendingGeneration != generation) {
+            // Stale - whatever marked the structure dirty needs a fresh full scan
+            structureDirty = true;
+            return;
+        }
+
+        FarmScanner.ScannedFarm scannedFarm;
+        try {
+            scannedFarm = future.join();
+        } catch (CompletionException e) {
+            Woot.LOGGER.error("Structure scan at {} failed on the worker pool, rescanning on the server thread", origin, e.getCause());
+            scannedFarm = SCANNER.scanFarm(level, origin);
+        }
+        applyScan(scannedFarm);
+    }
+
+    /**
+     * Revalidate only the changed positions, falling back to a full scan if the footprint could have changed
+     */
+    private void handleRevalidation() {
+        if (currentFarm == null) {
+            handleValidation();
+            return;
+        }
+
+        FarmScanner.ScannedFarm updated = SCANNER.revalidate(level, currentFarm, dirtyPositions);
+        if (updated != null) {
+            applyScan(updated);
+        } else {
+            handleValidation();
+        }
+    }
+
+    private void applyScan(@Nullable FarmScanner.ScannedFarm scannedFarm) {
+        // A factory may not share blocks with another formed factory
+        if (scannedFarm != null && level instanceof ServerLevel serverLevel
+                && FactoryOwnershipMap.get(serverLevel).overlaps(origin, SCANNER.getFootprint(scannedFarm))) {
+            Woot.LOGGER.warn("Multiblock at {} overlaps another factory, not forming", origin);
+            scannedFarm = null;
+        }
+
+        failedScans = scannedFarm == null ? Math.min(failedScans + 1, MAX_BACKOFF_SHIFT) : 0;
 
         if (currentFarm == null && scannedFarm == null) {
             // No change - still invalid
@@ -103,6 +255,10 @@ public class FarmStructure implements IFarmStructure {
      * Connect blocks to the new farm
      */
     private void connectNewFarm(@Nonnull FarmScanner.ScannedFarm farm) {
+        if (level instanceof ServerLevel serverLevel) {
+            FactoryOwnershipMap.get(serverLevel).claim(origin, SCANNER.getFootprint(farm));
+        }
+
         Set<BlockPos> allBlocks = new HashSet<>();
         allBlocks.addAll(farm.getControllerPositions());
         allBlocks.addAll(farm.getCellPositions());
@@ -141,6 +297,13 @@ public class FarmStructure implements IFarmStructure {
      * Disconnect blocks from the old farm
      */
     private void disconnectOldFarm(@Nonnull FarmScanner.ScannedFarm farm) {
+        if (level instanceof ServerLevel serverLevel) {
+            FactoryOwnershipMap ownership = FactoryOwnershipMap.find(serverLevel);
+            if (ownership != null && ownership.release(origin)) {
+                WootBlockNotifier.notifyClaimReleased(serverLevel, origin);
+            }
+        }
+
         Set<BlockPos> allBlocks = new HashSet<>();
         allBlocks.addAll(farm.getControllerPositions());
         allBlocks.addAll(farm.getCellPositions());
@@ -183,6 +346,10 @@ public class FarmStructure implements IFarmStructure {
             return false;
         }
 
+        if (!Objects.equals(getMobKey(farm1), getMobKey(farm2)) || !farm1.getUpgrades().equals(farm2.getUpgrades())) {
+            return false;
+        }
+
         Set<BlockPos> blocks1 = new HashSet<>();
         blocks1.addAll(farm1.getControllerPositions());
         blocks1.addAll(farm1.getCellPositions());
@@ -202,6 +369,11 @@ public class FarmStructure implements IFarmStructure {
         return blocks1.equals(blocks2);
     }
 
+    @Nullable
+    private static String getMobKey(@Nonnull FarmScanner.ScannedFarm farm) {
+        return farm.isProgrammed() ? farm.getProgrammedMob().entityKey() : null;
+    }
+
     @Override
     @Nullable
     public FarmSetup createSetup() {
@@ -236,24 +408,9 @@ public class FarmStructure implements IFarmStructure {
             setup.addUpgrade(entry.getKey(), entry.getValue());
         }
 
-        // Add cell positions and calculate aggregated energy
-        int totalCapacity = 0;
-        int totalStored = 0;
-
+        // Add cell positions - the heart pools their energy
         for (BlockPos pos : currentFarm.getCellPositions()) {
             setup.addCellPosition(pos);
-
-            BlockEntity be = level.getBlockEntity(pos);
-            if (be instanceof FactoryCellBlockEntity cell) {
-                totalCapacity += cell.getMaxEnergyStored();
-                totalStored += cell.getEnergyStored();
-            }
-        }
-
-        // Create aggregated energy storage
-        if (totalCapacity > 0) {
-            FactoryEnergyStorage aggregated = new FactoryEnergyStorage(totalCapacity, totalCapacity / 10, 0, totalStored);
-            setup.setAggregatedEnergy(aggregated);
         }
 
         return setup;
@@ -264,6 +421,19 @@ public class FarmStructure implements IFarmStructure {
         return currentFarm != null;
     }
 
+    @Override
+    public boolean isValidating() {
+        return pendingScan != null || structureDirty || !dirtyPositions.isEmpty();
+    }
+
+    @Override
+    public long getScanDueTick() {
+        if (pendingScan != null || (!structureDirty && dirtyPositions.isEmpty())) {
+            return 0;
+        }
+        return scanDueTick;
+    }
+
     @Override
     public boolean hasChanged() {
         return changed;
@@ -276,6 +446,8 @@ public class FarmStructure implements IFarmStructure {
 
     @Override
     public void fullDisconnect() {
+        // A scan still running on the worker pool must not reconnect anything
+        pendingScan = null;
         if (currentFarm != null) {
             disconnectOldFarm(currentFarm);
         }
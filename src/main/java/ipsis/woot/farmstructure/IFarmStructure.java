@@ -17,6 +17,12 @@ public interface IFarmStructure {
      */
     void setStructureDirty();
 
+    /**
+     * Mark a single block position as changed
+     * A formed structure only revalidates what that position belongs to
+     */
+    void setStructureDirty(@Nonnull BlockPos changedPos);
+
     /**
      * Disconnect all blocks in the multiblock
      */
@@ -50,6 +56,17 @@ public interface IFarmStructure {
      */
     boolean isFormed();
 
+    /**
+     * Check if a validation is queued or still running on the worker pool
+     */
+    boolean isValidating();
+
+    /**
+     * Game time a queued validation is waiting for (quiet window or backoff)
+     * 0 when nothing is waiting - no validation is queued, or one is already running
+     */
+    long getScanDueTick();
+
     /**
      * Check if the structure has changed since last check
      */
@@ -0,0 +1,153 @@
+package ipsis.woot.farmstructure;
+
+import ipsis.woot.Woot;
+import ipsis.woot.blockentities.FactoryControllerBlockEntity;
+import ipsis.woot.items.data.EnderShardData;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copy of the block states in a box around a heart, read once per scan
+ *
+ * States are read through a ChunkSectionReader and stored as indices into a small palette, as a
+ * factory area only holds a handful of distinct states. Positions in unloaded chunks are recorded
+ * as not loaded and read as void air.
+ *
+ * The programming of every controller in the box is copied too, so once captured on the server
+ * thread a snapshot needs no world access and can be matched on a worker thread.
+ */
+public class StructureSnapshot {
+
+    private static final short NOT_LOADED = -1;
+    private static final BlockState VOID = Blocks.VOID_AIR.defaultBlockState();
+
+    private final BlockPos origin;
+    private final int minX, minY, minZ;
+    private final int sizeX, sizeY, sizeZ;
+    private final List<BlockState> palette = new ArrayList<>();
+    private final short[] data;
+    private final Map<BlockPos, EnderShardData> programmedControllers = new HashMap<>();
+
+    private StructureSnapshot(@Nonnull BlockPos origin, @Nonnull BlockPos min, @Nonnull BlockPos max) {
+        this.origin = origin.immutable();
+        this.minX = min.getX();
+        this.minY = min.getY();
+        this.minZ = min.getZ();
+        this.sizeX = max.getX() - minX + 1;
+        this.sizeY = max.getY() - minY + 1;
+        this.sizeZ = max.getZ() - minZ + 1;
+        this.data = new short[sizeX * sizeY * sizeZ];
+    }
+
+    /**
+     * Read the block states of a box around an origin
+     *
+     * @param min Lowest offset from the origin, inclusive
+     * @param max Highest offset from the origin, inclusive
+     */
+    @Nonnull
+    public static StructureSnapshot capture(@Nonnull Level level, @Nonnull BlockPos origin,
+                                            @Nonnull BlockPos min, @Nonnull BlockPos max) {
+        StructureSnapshot snapshot = new StructureSnapshot(origin, min, max);
+        ChunkSectionReader reader = new ChunkSectionReader(level, origin.offset(min), origin.offset(max));
+        Map<BlockState, Short> ids = new IdentityHashMap<>();
+        Block controller = Woot.CONTROLLER.get();
+
+        for (int x = 0; x < snapshot.sizeX; x++) {
+            int worldX = origin.getX() + snapshot.minX + x;
+            for (int z = 0; z < snapshot.sizeZ; z++) {
+                int worldZ = origin.getZ() + snapshot.minZ + z;
+                boolean loaded = reader.isLoaded(worldX, worldZ);
+
+                for (int y = 0; y < snapshot.sizeY; y++) {
+                    short id = NOT_LOADED;
+                    if (loaded) {
+                        int worldY = origin.getY() + snapshot.minY + y;
+                        BlockState state = reader.getBlockState(worldX, worldY, worldZ);
+                        if (state.getBlock() == controller) {
+                            snapshot.captureController(level, new BlockPos(worldX, worldY, worldZ));
+                        }
+                        id = ids.computeIfAbsent(state, s -> {
+                            snapshot.palette.add(s);
+                            return (short) (snapshot.palette.size() - 1);
+                        });
+                    }
+                    snapshot.data[snapshot.index(x, y, z)] = id;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private void captureController(@Nonnull Level level, @Nonnull BlockPos pos) {
+        if (level.getBlockEntity(pos) instanceof FactoryControllerBlockEntity be && be.isProgrammed()) {
+            programmedControllers.put(pos, be.getProgrammedMob());
+        }
+    }
+
+    @Nonnull
+    public BlockPos getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Mob a controller was programmed with when captured, null if not programmed
+     */
+    @Nullable
+    public EnderShardData getProgrammedMob(@Nonnull BlockPos pos) {
+        return programmedControllers.get(pos);
+    }
+
+    /**
+     * Check if an offset from the origin is inside the box and was loaded when captured
+     */
+    public boolean isLoaded(int dx, int dy, int dz) {
+        int i = indexOf(dx, dy, dz);
+        return i >= 0 && data[i] != NOT_LOADED;
+    }
+
+    /**
+     * Block state at an offset from the origin, void air if outside the box or not loaded
+     */
+    @Nonnull
+    public BlockState getBlockState(int dx, int dy, int dz) {
+        int i = indexOf(dx, dy, dz);
+        if (i < 0 || data[i] == NOT_LOADED) {
+            return VOID;
+        }
+        return palette.get(data[i]);
+    }
+
+    /**
+     * Block state at a world position, void air if outside the box or not loaded
+     */
+    @Nonnull
+    public BlockState getBlockState(@Nonnull BlockPos pos) {
+        return getBlockState(pos.getX() - origin.getX(), pos.getY() - origin.getY(), pos.getZ() - origin.getZ());
+    }
+
+    private int indexOf(int dx, int dy, int dz) {
+        int x = dx - minX;
+        int y = dy - minY;
+        int z = dz - minZ;
+        if (x < 0 || y < 0 || z < 0 || x >= sizeX || y >= sizeY || z >= sizeZ) {
+            return -1;
+        }
+        return index(x, y, z);
+    }
+
+    private int index(int x, int y, int z) {
+        return (y * sizeZ + z) * sizeX + x;
+    }
+}
@@ -12,6 +12,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Scans for and validates upgrade "totems" - vertical stacks of 1-3 upgrade blocks
@@ -41,9 +42,18 @@ public class UpgradeScanner {
     @Nullable
     public static UpgradeInfo scanUpgradeTotem(@Nonnull Level level, @Nonnull BlockPos basePos,
                                                 @Nonnull EnumMobFactoryTier factoryTier) {
+        return scanUpgradeTotem(level::getBlockState, basePos, factoryTier);
+    }
+
+    /**
+     * Scan for an upgrade totem, reading blocks through the given lookup (e.g. a StructureSnapshot)
+     */
+    @Nullable
+    public static UpgradeInfo scanUpgradeTotem(@Nonnull Function<BlockPos, BlockState> blocks, @Nonnull BlockPos basePos,
+                                                @Nonnull EnumMobFactoryTier factoryTier) {
         // ========== TIER I: Base of the totem (required) ==========
         BlockPos tier1Pos = basePos.above(1);
-        BlockState tier1State = level.getBlockState(tier1Pos);
+        BlockState tier1State = blocks.apply(tier1Pos);
         Block tier1Block = tier1State.getBlock();
 
         // Check if Tier I upgrade exists
@@ -69,7 +79,7 @@ public class UpgradeScanner {
         // ========== TIER II: Second block (optional) ==========
         if (factoryTier.getLevel() >= 2) {
             BlockPos tier2Pos = basePos.above(2);
-            BlockState tier2State = level.getBlockState(tier2Pos);
+            BlockState tier2State = blocks.apply(tier2Pos);
             Block tier2Block = tier2State.getBlock();
 
             EnumFarmUpgrade tier2Type = EnumFarmUpgrade.fromBlock(tier2Block);
@@ -83,7 +93,7 @@ public class UpgradeScanner {
                 // ========== TIER III: Third block (optional, requires Tier II) ==========
                 if (factoryTier.getLevel() >= 3) {
                     BlockPos tier3Pos = basePos.above(3);
-                    BlockState tier3State = level.getBlockState(tier3Pos);
+                    BlockState tier3State = blocks.apply(tier3Pos);
                     Block tier3Block = tier3State.getBlock();
 
                     EnumFarmUpgrade tier3Type = EnumFarmUpgrade.fromBlock(tier3Block);
@@ -0,0 +1,226 @@
+package ipsis.woot.gametest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import ipsis.woot.Woot;
+import ipsis.woot.blockentities.ExporterBlockEntity;
+import ipsis.woot.blockentities.FactoryCellBlockEntity;
+import ipsis.woot.blockentities.FactoryControllerBlockEntity;
+import ipsis.woot.blockentities.FactoryHeartBlockEntity;
+import ipsis.woot.farming.FactoryScheduler;
+import ipsis.woot.items.data.EnderShardData;
+import ipsis.woot.multiblock.EnumMobFactoryTier;
+import ipsis.woot.multiblock.FactoryPatternRepository;
+import ipsis.woot.power.FactoryEnergyStorage;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.neoforged.neoforge.energy.IEnergyStorage;
+import net.neoforged.neoforge.gametest.GameTestHolder;
+import net.neoforged.neoforge.gametest.PrefixGameTestTemplate;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Throughput benchmarks for running factories
+ *
+ * Each test builds N factories of one tier from the FactoryPatternRepository patterns, programs them
+ * with zombies, keeps their cells full and empties their exporters every tick, as a creative power
+ * source and an item pipe would. After a warm-up the FactoryScheduler time is sampled every tick.
+ * Every tier runs in its own batch, so the scheduler time is never shared with another test's hearts.
+ *
+ * Results (mean/p99/max scheduler time per tick and completed cycles per second) are written as
+ * JSON to woot.benchmark.dir (default: woot-benchmarks in the server folder), one file per tier.
+ *
+ * System properties:
+ *   woot.benchmark.factories - factories per test, 1-16 (default 4)
+ *   woot.benchmark.dir       - result directory
+ */
+@GameTestHolder(Woot.MODID)
+@PrefixGameTestTemplate(false)
+public class FactoryBenchmarkTests {
+
+    // Batches run one after another - one per tier keeps the level-wide scheduler time to one test
+    private static final String BATCH_TIER_I = "woot_benchmark_tier_i";
+    private static final String BATCH_TIER_II = "woot_benchmark_tier_ii";
+    private static final String BATCH_TIER_III = "woot_benchmark_tier_iii";
+    private static final String BATCH_TIER_IV = "woot_benchmark_tier_iv";
+    private static final String TEMPLATE = "benchmark_platform";
+
+    private static final int WARMUP_TICKS = 100;
+    private static final int MEASURE_TICKS = 1200;
+    private static final int TIMEOUT_TICKS = WARMUP_TICKS + MEASURE_TICKS + 100;
+
+    // The 48x12x48 template holds a 4x4 grid of factories, one per 12x12 plot
+    private static final int GRID_SIZE = 4;
+    private static final int PLOT_SIZE = 12;
+    private static final int HEART_Y = 5;
+
+    private static final EnderShardData ZOMBIE = new EnderShardData("minecraft:zombie", "Zombie", 0, "");
+    private static final FactoryPatternRepository PATTERNS = FactoryPatternRepository.get();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    @GameTest(template = TEMPLATE, batch = BATCH_TIER_I, timeoutTicks = TIMEOUT_TICKS)
+    public static void benchmarkTierI(GameTestHelper helper) {
+        runBenchmark(helper, EnumMobFactoryTier.TIER_I);
+    }
+
+    @GameTest(template = TEMPLATE, batch = BATCH_TIER_II, timeoutTicks = TIMEOUT_TICKS)
+    public static void benchmarkTierII(GameTestHelper helper) {
+        runBenchmark(helper, EnumMobFactoryTier.TIER_II);
+    }
+
+    @GameTest(template = TEMPLATE, batch = BATCH_TIER_III, timeoutTicks = TIMEOUT_TICKS)
+    public static void benchmarkTierIII(GameTestHelper helper) {
+        runBenchmark(helper, EnumMobFactoryTier.TIER_III);
+    }
+
+    @GameTest(template = TEMPLATE, batch = BATCH_TIER_IV, timeoutTicks = TIMEOUT_TICKS)
+    public static void benchmarkTierIV(GameTestHelper helper) {
+        runBenchmark(helper, EnumMobFactoryTier.TIER_IV);
+    }
+
+    private static void runBenchmark(GameTestHelper helper, EnumMobFactoryTier tier) {
+        int factories = Math.max(1, Math.min(GRID_SIZE * GRID_SIZE, Integer.getInteger("woot.benchmark.factories", 4)));
+
+        List<BlockPos> hearts = new ArrayList<>();
+        for (int i = 0; i < factories; i++) {
+            BlockPos heart = new BlockPos(
+                PLOT_SIZE / 2 + (i % GRID_SIZE) * PLOT_SIZE,
+                HEART_Y,
+                PLOT_SIZE / 2 + (i / GRID_SIZE) * PLOT_SIZE);
+            buildFactory(helper, heart, tier);
+            hearts.add(heart);
+        }
+
+        long[] samples = new long[MEASURE_TICKS];
+        long[] cyclesAtStart = new long[1];
+        int[] tick = {0};
+
+        helper.onEachTick(() -> {
+            for (BlockPos heart : hearts) {
+                serviceFactory(helper, heart);
+            }
+
+            int t = tick[0]++;
+            if (t == WARMUP_TICKS) {
+                cyclesAtStart[0] = countCycles(helper, hearts);
+            }
+            if (t >= WARMUP_TICKS && t < WARMUP_TICKS + MEASURE_TICKS) {
+                FactoryScheduler scheduler = FactoryScheduler.find(helper.getLevel());
+                samples[t - WARMUP_TICKS] = scheduler != null ? scheduler.getLastTickNanos() : 0;
+            }
+        });
+
+        helper.runAfterDelay(WARMUP_TICKS + MEASURE_TICKS + 1, () -> {
+            for (BlockPos heart : hearts) {
+                FactoryHeartBlockEntity be = helper.getBlockEntity(heart);
+                if (!be.isFormed()) {
+                    helper.fail("Factory did not form", heart);
+                    return;
+                }
+            }
+
+            long cycles = countCycles(helper, hearts) - cyclesAtStart[0];
+            writeResults(tier, factories, samples, cycles);
+            helper.succeed();
+        });
+    }
+
+    /**
+     * Place the pattern blocks, the cell/importer/exporter column and a programmed controller
+     */
+    private static void buildFactory(GameTestHelper helper, BlockPos heart, EnumMobFactoryTier tier) {
+        for (FactoryPatternRepository.MobFactoryModule module : PATTERNS.getAllModules(tier)) {
+            helper.setBlock(heart.offset(module.getOffset()), module.getModuleType().getBlock());
+        }
+
+        // heart.below(1) stays air
+        helper.setBlock(heart.below(2), Woot.CELL_TIER_III.get());
+        helper.setBlock(heart.below(3), Woot.IMPORTER.get());
+        helper.setBlock(heart.below(4), Woot.EXPORTER.get());
+        helper.setBlock(heart.above(), Woot.CONTROLLER.get());
+        helper.setBlock(heart, Woot.FACTORY_HEART.get());
+
+        FactoryControllerBlockEntity controller = helper.getBlockEntity(heart.above());
+        controller.programFromShard(ZOMBIE);
+
+        FactoryCellBlockEntity cell = helper.getBlockEntity(heart.below(2));
+        if (cell.getEnergyStorage() instanceof FactoryEnergyStorage storage) {
+            storage.setEnergy(storage.getMaxEnergyStored());
+        }
+    }
+
+    /**
+     * Top up the cell and empty the exporter
+     */
+    private static void serviceFactory(GameTestHelper helper, BlockPos heart) {
+        FactoryCellBlockEntity cell = helper.getBlockEntity(heart.below(2));
+        IEnergyStorage storage = cell.getEnergyStorage();
+        int missing = storage.getMaxEnergyStored() - storage.getEnergyStored();
+        if (missing > 0) {
+            storage.receiveEnergy(missing, false);
+        }
+
+        ExporterBlockEntity exporter = helper.getBlockEntity(heart.below(4));
+        if (!exporter.isEmpty()) {
+            exporter.clearContent();
+        }
+    }
+
+    private static long countCycles(GameTestHelper helper, List<BlockPos> hearts) {
+        long cycles = 0;
+        for (BlockPos heart : hearts) {
+            FactoryHeartBlockEntity be = helper.getBlockEntity(heart);
+            cycles += be.getCompletedCycles();
+        }
+        return cycles;
+    }
+
+    private static void writeResults(@Nonnull EnumMobFactoryTier tier, int factories, @Nonnull long[] samples, long cycles) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+
+        long total = 0;
+        for (long sample : sorted) {
+            total += sample;
+        }
+        double meanMicros = total / (double) sorted.length / 1000.0;
+        double p99Micros = sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1000.0;
+        double maxMicros = sorted[sorted.length - 1] / 1000.0;
+        double cyclesPerSecond = cycles / (MEASURE_TICKS / 20.0);
+
+        JsonObject result = new JsonObject();
+        result.addProperty("tier", tier.getSerializedName());
+        result.addProperty("factories", factories);
+        result.addProperty("ticks", MEASURE_TICKS);
+        result.addProperty("meanMicrosPerTick", meanMicros);
+        result.addProperty("p99MicrosPerTick", p99Micros);
+        result.addProperty("maxMicrosPerTick", maxMicros);
+        result.addProperty("completedCycles", cycles);
+        result.addProperty("cyclesPerSecond", cyclesPerSecond);
+        result.addProperty("timestamp", System.currentTimeMillis());
+
+        Woot.LOGGER.info("Factory benchmark {} x {}: mean {} us/tick, p99 {} us/tick, {} cycles/s",
+            factories, tier, String.format("%.1f", meanMicros), String.format("%.1f", p99Micros),
+            String.format("%.2f", cyclesPerSecond));
+
+        Path dir = Paths.get(System.getProperty("woot.benchmark.dir", "woot-benchmarks"));
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("factory_" + tier.getSerializedName() + ".json"),
+                GSON.toJson(result), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            Woot.LOGGER.error("Failed to write factory benchmark results: {}", e.getMessage());
+        }
+    }
+}
@@ -34,6 +34,12 @@ public class FarmUIInfo {
     private int powerStored = 0;
     private int powerCapacity = 0;
 
+    // Flow meters (moving averages)
+    private float energyInPerTick = 0.0F;
+    private float energyOutPerTick = 0.0F;
+    private float powerStalledPercent = 0.0F;
+    private float cyclesPerMinute = 0.0F;
+
     // Ingredients and drops
     private final List<ItemStack> ingredientsItems = new ArrayList<>();
     private final List<FluidStack> ingredientsFluids = new ArrayList<>();
@@ -61,6 +67,10 @@ public class FarmUIInfo {
     public boolean hasMissingIngredients() { return missingIngredients; }
     public int getPowerStored() { return powerStored; }
     public int getPowerCapacity() { return powerCapacity; }
+    public float getEnergyInPerTick() { return energyInPerTick; }
+    public float getEnergyOutPerTick() { return energyOutPerTick; }
+    public float getPowerStalledPercent() { return powerStalledPercent; }
+    public float getCyclesPerMinute() { return cyclesPerMinute; }
     public List<ItemStack> getIngredientsItems() { return ingredientsItems; }
     public List<FluidStack> getIngredientsFluids() { return ingredientsFluids; }
     public List<ItemStack> getDrops() { return drops; }
@@ -81,6 +91,10 @@ public class FarmUIInfo {
     public void setMissingIngredients(boolean missingIngredients) { this.missingIngredients = missingIngredients; }
     public void setPowerStored(int powerStored) { this.powerStored = powerStored; }
     public void setPowerCapacity(int powerCapacity) { this.powerCapacity = powerCapacity; }
+    public void setEnergyInPerTick(float energyInPerTick) { this.energyInPerTick = energyInPerTick; }
+    public void setEnergyOutPerTick(float energyOutPerTick) { this.energyOutPerTick = energyOutPerTick; }
+    public void setPowerStalledPercent(float powerStalledPercent) { this.powerStalledPercent = powerStalledPercent; }
+    public void setCyclesPerMinute(float cyclesPerMinute) { this.cyclesPerMinute = cyclesPerMinute; }
     public void setTotalSamples(int totalSamples) { this.totalSamples = totalSamples; }
     public void setValid(boolean valid) { isValid = valid; }
 
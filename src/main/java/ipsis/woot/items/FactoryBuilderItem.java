@@ -1,10 +1,17 @@
 package ipsis.woot.items;
 
+import ipsis.woot.Woot;
 import ipsis.woot.blockentities.LayoutBlockEntity;
+import ipsis.woot.farmstructure.FactoryBuildQueue;
+import ipsis.woot.multiblock.EnumMobFactoryTier;
+import ipsis.woot.multiblock.FactoryPatternRepository;
 import net.minecraft.ChatFormatting;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.InteractionResult;
+import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
@@ -13,17 +20,25 @@ import net.minecraft.world.item.context.UseOnContext;
 import net.minecraft.world.level.Level;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Factory Builder Item - Automatically builds factory structures
  *
  * Features:
- * - Right-click on Layout Block: Builds the factory structure using items from inventory
- * - TODO: Implement automatic building functionality
+ * - Right-click on Layout Block: Builds the selected tier's pattern and heart using items from inventory
+ *
+ * The items are taken in one pass over the inventory and the blocks are placed over the
+ * following ticks by the level's FactoryBuildQueue.
  */
 public class FactoryBuilderItem extends Item {
 
+    private static final FactoryPatternRepository PATTERNS = FactoryPatternRepository.get();
+
     public FactoryBuilderItem(Properties properties) {
         super(properties);
     }
@@ -45,18 +60,8 @@ public class FactoryBuilderItem extends Item {
 
         // Check if clicking on a Layout block
         if (level.getBlockEntity(clickedPos) instanceof LayoutBlockEntity layoutBE) {
-            if (!level.isClientSide()) {
-                // TODO: Implement auto-building logic
-                // 1. Get the tier from the layout block
-                // 2. Get the pattern for that tier
-                // 3. Check if player has required items
-                // 4. Place blocks and consume items
-
-                player.displayClientMessage(
-                    Component.literal("Building functionality not yet implemented!")
-                        .withStyle(ChatFormatting.RED),
-                    false
-                );
+            if (level instanceof ServerLevel serverLevel) {
+                build(serverLevel, player, context.getItemInHand(), layoutBE);
             }
             return InteractionResult.SUCCESS;
         }
@@ -64,6 +69,114 @@ public class FactoryBuilderItem extends Item {
         return InteractionResult.PASS;
     }
 
+    /**
+     * Queue the blocks the layout's pattern is missing, as far as the player's inventory allows
+     */
+    private void build(@Nonnull ServerLevel level, @Nonnull Player player, @Nonnull ItemStack builder,
+                       @Nonnull LayoutBlockEntity layoutBE) {
+        EnumMobFactoryTier tier = layoutBE.getSelectedTier();
+        BlockPos heartPos = layoutBE.getBlockPos().offset(PATTERNS.getLayoutHeartOffset(tier));
+
+        FactoryBuildQueue queue = FactoryBuildQueue.get(level);
+        if (queue.isBuilding(heartPos)) {
+            player.displayClientMessage(Component.translatable("chat.woot.builder.busy"), true);
+            return;
+        }
+
+        // Bottom layer first, the heart last
+        List<FactoryBuildQueue.Placement> wanted = new ArrayList<>();
+        for (FactoryPatternRepository.MobFactoryModule module : PATTERNS.getAllModules(tier)) {
+            BlockPos pos = heartPos.offset(module.getOffset());
+            if (level.getBlockState(pos).canBeReplaced()) {
+                wanted.add(new FactoryBuildQueue.Placement(pos, module.getModuleType().getBlock().defaultBlockState()));
+            }
+        }
+        wanted.sort(Comparator.comparingInt(placement -> placement.pos().getY()));
+        if (level.getBlockState(heartPos).canBeReplaced()) {
+            wanted.add(new FactoryBuildQueue.Placement(heartPos, Woot.FACTORY_HEART.get().defaultBlockState()));
+        }
+
+        if (wanted.isEmpty()) {
+            player.displayClientMessage(Component.translatable("chat.woot.builder.nothing"), true);
+            return;
+        }
+
+        // Same checks as placing the blocks by hand (spawn protection, claims) - a factory with
+        // holes in it is no use, so build all of it or nothing
+        for (FactoryBuildQueue.Placement placement : wanted) {
+            if (!mayBuildAt(level, player, builder, placement.pos())) {
+                player.displayClientMessage(Component.translatable("chat.woot.builder.protected"), true);
+                return;
+            }
+        }
+
+        Map<Item, Integer> needed = new HashMap<>();
+        for (FactoryBuildQueue.Placement placement : wanted) {
+            needed.merge(placement.state().getBlock().asItem(), 1, Integer::sum);
+        }
+        Map<Item, Integer> taken = takeItems(player, needed);
+
+        // Only build what was paid for
+        List<FactoryBuildQueue.Placement> placements = new ArrayList<>();
+        int missing = 0;
+        for (FactoryBuildQueue.Placement placement : wanted) {
+            Item item = placement.state().getBlock().asItem();
+            int remaining = taken.getOrDefault(item, 0);
+            if (remaining > 0) {
+                taken.put(item, remaining - 1);
+                placements.add(placement);
+            } else {
+                missing++;
+            }
+        }
+
+        if (!placements.isEmpty()) {
+            queue.add(heartPos, player, placements);
+            player.displayClientMessage(
+                Component.translatable("chat.woot.builder.building", tier.getLevel(), placements.size()), false);
+        }
+        if (missing > 0) {
+            player.displayClientMessage(
+                Component.translatable("chat.woot.builder.missing", missing).withStyle(ChatFormatting.RED), false);
+        }
+    }
+
+    private static boolean mayBuildAt(@Nonnull ServerLevel level, @Nonnull Player player, @Nonnull ItemStack builder,
+                                      @Nonnull BlockPos pos) {
+        return player.mayBuild() && level.mayInteract(player, pos) && player.mayUseItemAt(pos, Direction.UP, builder);
+    }
+
+    /**
+     * Take up to the needed count of each item in one pass over the inventory
+     *
+     * @return the count of each item taken
+     */
+    @Nonnull
+    private static Map<Item, Integer> takeItems(@Nonnull Player player, @Nonnull Map<Item, Integer> needed) {
+        if (player.getAbilities().instabuild) {
+            return new HashMap<>(needed);
+        }
+
+        Map<Item, Integer> taken = new HashMap<>();
+        Inventory inventory = player.getInventory();
+        for (int slot = 0; slot < inventory.getContainerSize(); slot++) {
+            ItemStack stack = inventory.getItem(slot);
+            if (stack.isEmpty()) {
+                continue;
+            }
+
+            Item item = stack.getItem();
+            int want = needed.getOrDefault(item, 0) - taken.getOrDefault(item, 0);
+            if (want > 0) {
+                int count = Math.min(want, stack.getCount());
+                stack.shrink(count);
+                taken.merge(item, count, Integer::sum);
+            }
+        }
+        inventory.setChanged();
+        return taken;
+    }
+
     /**
      * Add tooltip with usage information
      */
@@ -81,7 +194,7 @@ public class FactoryBuilderItem extends Item {
             .append(Component.literal("Build Factory")
                 .withStyle(ChatFormatting.WHITE)));
 
-        tooltipComponents.add(Component.literal("(Not yet implemented)")
+        tooltipComponents.add(Component.literal("Uses blocks from your inventory")
             .withStyle(ChatFormatting.DARK_GRAY, ChatFormatting.ITALIC));
     }
 }
@@ -0,0 +1,26 @@
+package ipsis.woot.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Insertion of a cycle's drops into the exporters
+ */
+@Name("woot.ExporterInsert")
+@Label("Factory Exporter Insertion")
+@Description("Inserting the drops of a spawn cycle into the exporters")
+public class ExporterInsertEvent extends FactoryEvent {
+
+    @Label("Exporters")
+    public int exporterCount;
+
+    @Label("Stacks")
+    public int stackCount;
+
+    @Label("Items")
+    public long itemCount;
+
+    @Label("Items Not Inserted")
+    public long itemsRejected;
+}
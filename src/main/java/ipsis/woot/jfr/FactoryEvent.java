@@ -0,0 +1,62 @@
+package ipsis.woot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import net.minecraft.core.BlockPos;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Base of the Java Flight Recorder events for factory work
+ *
+ * All factory events are disabled by default. Enable the "Woot" category in a JFR settings file
+ * (or jdk.jfr settings=...) to record them. When disabled, shouldCommit() is false and the event
+ * objects are never filled in, so the instrumentation costs nothing measurable.
+ *
+ * Usage:
+ *   SpawnCycleEvent event = new SpawnCycleEvent();
+ *   event.begin();
+ *   ... work ...
+ *   if (event.shouldCommit()) {
+ *       event.setFactory(pos, tier, mob);
+ *       event.commit();
+ *   }
+ */
+@Category({"Woot", "Factory"})
+@Enabled(false)
+@StackTrace(false)
+public abstract class FactoryEvent extends Event {
+
+    @Label("Heart X")
+    int heartX;
+
+    @Label("Heart Y")
+    int heartY;
+
+    @Label("Heart Z")
+    int heartZ;
+
+    @Label("Tier")
+    int tier;
+
+    @Label("Mob")
+    String mob;
+
+    /**
+     * Identify the factory the event belongs to
+     *
+     * @param tier Factory tier level (1-4), 0 if not formed
+     * @param mob Programmed mob entity key, null if not programmed
+     */
+    public void setFactory(@Nonnull BlockPos heartPos, int tier, @Nullable String mob) {
+        this.heartX = heartPos.getX();
+        this.heartY = heartPos.getY();
+        this.heartZ = heartPos.getZ();
+        this.tier = tier;
+        this.mob = mob;
+    }
+}
@@ -0,0 +1,23 @@
+package ipsis.woot.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Consumption of a cycle's spawn ingredients from the importers
+ */
+@Name("woot.IngredientConsume")
+@Label("Factory Ingredient Consumption")
+@Description("Taking the spawn ingredients of a cycle from the importers")
+public class IngredientConsumeEvent extends FactoryEvent {
+
+    @Label("Importers")
+    public int importerCount;
+
+    @Label("Ingredients")
+    public int ingredientCount;
+
+    @Label("Consumed")
+    public boolean consumed;
+}
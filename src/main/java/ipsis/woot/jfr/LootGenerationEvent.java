@@ -0,0 +1,30 @@
+package ipsis.woot.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Loot generation for a spawn cycle, on whichever thread it ran
+ */
+@Name("woot.LootGeneration")
+@Label("Factory Loot Generation")
+@Description("Rolling or synthesizing the drops of a spawn cycle")
+public class LootGenerationEvent extends FactoryEvent {
+
+    @Label("Mob Count")
+    public int mobCount;
+
+    @Label("Looting")
+    public int looting;
+
+    @Label("Mode")
+    @Description("statistical, compiled or vanilla")
+    public String mode;
+
+    @Label("Stacks")
+    public int stackCount;
+
+    @Label("Items")
+    public long itemCount;
+}
@@ -0,0 +1,26 @@
+package ipsis.woot.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Completion of a spawn cycle - bonus drops, statistics and output to the exporters
+ */
+@Name("woot.SpawnCycle")
+@Label("Factory Spawn Cycle")
+@Description("Completion of a factory spawn cycle")
+public class SpawnCycleEvent extends FactoryEvent {
+
+    @Label("Mob Count")
+    public int mobCount;
+
+    @Label("Stacks")
+    public int stackCount;
+
+    @Label("Items")
+    public long itemCount;
+
+    @Label("Energy")
+    public long energy;
+}
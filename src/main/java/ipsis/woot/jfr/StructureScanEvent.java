@@ -0,0 +1,20 @@
+package ipsis.woot.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Multiblock validation of a factory heart (FarmScanner.scanFarm)
+ */
+@Name("woot.StructureScan")
+@Label("Factory Structure Scan")
+@Description("Validation of a factory multiblock around its heart")
+public class StructureScanEvent extends FactoryEvent {
+
+    @Label("Tiers Tried")
+    public int tiersTried;
+
+    @Label("Valid")
+    public boolean valid;
+}
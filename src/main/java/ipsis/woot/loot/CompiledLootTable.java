@@ -0,0 +1,569 @@
+package ipsis.woot.loot;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import ipsis.woot.Woot;
+import ipsis.woot.util.FactoryRolls;
+import ipsis.woot.util.RandomSourceGenerator;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.storage.loot.LootTable;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A mob loot table flattened into primitive arrays
+ *
+ * Covers the common vanilla shapes: pools of weighted item/empty entries, set_count and limit_count
+ * with constant/uniform/binomial counts, and random chance conditions. Everything is evaluated the
+ * same way as the vanilla classes for the loot context Woot builds (this entity, origin, damage source
+ * and luck - no attacker, no killer player, no explosion):
+ * - entry weight is floor(weight + quality * luck)
+ * - random_chance_with_enchanted_bonus uses its unenchanted chance, killed_by_player never passes
+ * - enchanted_count_increase and explosion_decay do nothing
+ * Conditions are folded into a single pass probability, which keeps the drop distribution.
+ *
+ * Tables using anything else do not compile and are rolled by vanilla. Compiled tables are immutable
+ * and sampling does not allocate, so they are safe to use from worker threads.
+ */
+public class CompiledLootTable {
+
+    // Weighted choice keeps the candidate entries of a roll in a 64 bit mask
+    private static final int MAX_ENTRIES_PER_POOL = 64;
+
+    private static final byte FN_SET_COUNT = 0;
+    private static final byte FN_LIMIT_COUNT = 1;
+
+    private static final byte DIST_CONSTANT = 0;
+    private static final byte DIST_UNIFORM = 1;
+    private static final byte DIST_BINOMIAL = 2;
+
+    // Distinct items produced by the table - counts are reported by index into this array
+    private final Item[] items;
+
+    // Pools
+    private final float[] poolChance;
+    private final int[] poolRollsMin;
+    private final int[] poolRollsMax;
+    private final float[] poolBonusRolls;
+    private final int[] poolEntryStart;
+    private final int[] poolEntryEnd;
+
+    // Entries
+    private final int[] entryItem;          // index into items, -1 for empty
+    private final int[] entryWeight;
+    private final int[] entryQuality;
+    private final float[] entryChance;
+    private final int[] entryFunctionStart;
+    private final int[] entryFunctionEnd;
+
+    // Count functions, flattened per entry (entry, then pool, then table functions)
+    private final byte[] fnType;
+    private final float[] fnChance;
+    private final byte[] fnDist;
+    private final float[] fnA;
+    private final float[] fnB;
+    private final boolean[] fnAdd;
+
+    private CompiledLootTable(Builder builder) {
+        this.items = builder.items.toArray(new Item[0]);
+        this.poolChance = builder.poolChance.toFloatArray();
+        this.poolRollsMin = builder.poolRollsMin.toIntArray();
+        this.poolRollsMax = builder.poolRollsMax.toIntArray();
+        this.poolBonusRolls = builder.poolBonusRolls.toFloatArray();
+        this.poolEntryStart = builder.poolEntryStart.toIntArray();
+        this.poolEntryEnd = builder.poolEntryEnd.toIntArray();
+        this.entryItem = builder.entryItem.toIntArray();
+        this.entryWeight = builder.entryWeight.toIntArray();
+        this.entryQuality = builder.entryQuality.toIntArray();
+        this.entryChance = builder.entryChance.toFloatArray();
+        this.entryFunctionStart = builder.entryFunctionStart.toIntArray();
+        this.entryFunctionEnd = builder.entryFunctionEnd.toIntArray();
+        this.fnType = builder.fnType.toByteArray();
+        this.fnChance = builder.fnChance.toFloatArray();
+        this.fnDist = builder.fnDist.toByteArray();
+        this.fnA = builder.fnA.toFloatArray();
+        this.fnB = builder.fnB.toFloatArray();
+        this.fnAdd = builder.fnAdd.toBooleanArray();
+    }
+
+    /**
+     * Compile a loot table
+     *
+     * @return The compiled table, or null if it uses anything the compiler does not support
+     */
+    @Nullable
+    public static CompiledLootTable compile(@Nonnull ServerLevel level, @Nonnull LootTable table) {
+        try {
+            JsonElement json = LootJson.encode(level, table);
+            return new Builder(level).table(json.getAsJsonObject());
+        } catch (UnsupportedOperationException e) {
+            Woot.LOGGER.debug("Loot table {} not compiled: {}", table.getLootTableId(), e.getMessage());
+            return null;
+        } catch (Exception e) {
+            Woot.LOGGER.debug("Loot table {} not compiled: {}", table.getLootTableId(), e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Number of distinct items - the size of the counts array passed to sample
+     */
+    public int getItemCount() {
+        return items.length;
+    }
+
+    /**
+     * Get a distinct item by index
+     */
+    @Nonnull
+    public Item getItem(int index) {
+        return items[index];
+    }
+
+    /**
+     * Roll the table for a number of mobs, adding the item counts into counts
+     *
+     * @param counts Per-item totals, indexed like getItem, at least getItemCount() long
+     */
+    public void sample(@Nonnull RandomSource random, float luck, int mobs, @Nonnull long[] counts) {
+        for (int mob = 0; mob < mobs; mob++) {
+            for (int pool = 0; pool < poolChance.length; pool++) {
+                samplePool(pool, random, luck, counts);
+            }
+        }
+    }
+
+    /**
+     * Roll the table for one mob and return its drops as item stacks
+     */
+    @Nonnull
+    public List<ItemStack> sampleStacks(@Nonnull RandomSource random, float luck) {
+        long[] counts = new long[items.length];
+        sample(random, luck, 1, counts);
+        return toStacks(counts);
+    }
+
+    /**
+     * Convert per-item totals to item stacks
+     */
+    @Nonnull
+    public List<ItemStack> toStacks(@Nonnull long[] counts) {
+        List<ItemStack> stacks = new ArrayList<>();
+        for (int i = 0; i < items.length; i++) {
+            long remaining = counts[i];
+            int maxStack = Math.max(1, items[i].getDefaultMaxStackSize());
+            while (remaining > 0) {
+                int size = (int) Math.min(remaining, maxStack);
+                stacks.add(new ItemStack(items[i], size));
+                remaining -= size;
+            }
+        }
+        return stacks;
+    }
+
+    private void samplePool(int pool, @Nonnull RandomSource random, float luck, @Nonnull long[] counts) {
+        if (!passes(poolChance[pool], random)) {
+            return;
+        }
+
+        int rolls = Mth.nextInt(random, poolRollsMin[pool], poolRollsMax[pool]) + Mth.floor(poolBonusRolls[pool] * luck);
+        int start = poolEntryStart[pool];
+        int end = poolEntryEnd[pool];
+
+        for (int roll = 0; roll < rolls; roll++) {
+            // Expand the entries that can run this roll
+            long candidates = 0L;
+            int totalWeight = 0;
+            for (int entry = start; entry < end; entry++) {
+                if (!passes(entryChance[entry], random)) {
+                    continue;
+                }
+                int weight = getWeight(entry, luck);
+                if (weight > 0) {
+                    candidates |= 1L << (entry - start);
+                    totalWeight += weight;
+                }
+            }
+
+            if (candidates == 0L) {
+                continue;
+            }
+
+            if (Long.bitCount(candidates) == 1) {
+                emit(start + Long.numberOfTrailingZeros(candidates), random, counts);
+                continue;
+            }
+
+            int choice = random.nextInt(totalWeight);
+            while (candidates != 0L) {
+                int entry = start + Long.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+                choice -= getWeight(entry, luck);
+                if (choice < 0) {
+                    emit(entry, random, counts);
+                    break;
+                }
+            }
+        }
+    }
+
+    private int getWeight(int entry, float luck) {
+        return Math.max(Mth.floor(entryWeight[entry] + entryQuality[entry] * luck), 0);
+    }
+
+    private void emit(int entry, @Nonnull RandomSource random, @Nonnull long[] counts) {
+        int item = entryItem[entry];
+        if (item < 0) {
+            return;
+        }
+
+        int count = 1;
+        for (int fn = entryFunctionStart[entry]; fn < entryFunctionEnd[entry]; fn++) {
+            if (!passes(fnChance[fn], random)) {
+                continue;
+            }
+            if (fnType[fn] == FN_SET_COUNT) {
+                count = (fnAdd[fn] ? count : 0) + drawInt(fn, random);
+            } else {
+                count = Mth.clamp(count, (int) fnA[fn], (int) fnB[fn]);
+            }
+        }
+
+        if (count > 0) {
+            counts[item] += count;
+        }
+    }
+
+    private int drawInt(int fn, @Nonnull RandomSource random) {
+        switch (fnDist[fn]) {
+            case DIST_UNIFORM:
+                return Mth.nextInt(random, Math.round(fnA[fn]), Math.round(fnB[fn]));
+            case DIST_BINOMIAL:
+                return FactoryRolls.binomial(RandomSourceGenerator.of(random), Math.round(fnA[fn]), fnB[fn]);
+            default:
+                return Math.round(fnA[fn]);
+        }
+    }
+
+    private static boolean passes(float chance, @Nonnull RandomSource random) {
+        return chance >= 1.0f || random.nextFloat() < chance;
+    }
+
+    /**
+     * Builds the arrays from the codec JSON of a table, throwing UnsupportedOperationException
+     * for anything that cannot be compiled exactly
+     */
+    private static class Builder {
+
+        private final ServerLevel level;
+
+        private final List<Item> items = new ArrayList<>();
+        private final FloatList poolChance = new FloatList();
+        private final IntList poolRollsMin = new IntList();
+        private final IntList poolRollsMax = new IntList();
+        private final FloatList poolBonusRolls = new FloatList();
+        private final IntList poolEntryStart = new IntList();
+        private final IntList poolEntryEnd = new IntList();
+        private final IntList entryItem = new IntList();
+        private final IntList entryWeight = new IntList();
+        private final IntList entryQuality = new IntList();
+        private final FloatList entryChance = new FloatList();
+        private final IntList entryFunctionStart = new IntList();
+        private final IntList entryFunctionEnd = new IntList();
+        private final ByteList fnType = new ByteList();
+        private final FloatList fnChance = new FloatList();
+        private final ByteList fnDist = new ByteList();
+        private final FloatList fnA = new FloatList();
+        private final FloatList fnB = new FloatList();
+        private final BooleanList fnAdd = new BooleanList();
+
+        private Builder(ServerLevel level) {
+            this.level = level;
+        }
+
+        private CompiledLootTable table(JsonObject table) {
+            JsonArray tableFunctions = LootJson.array(table, "functions");
+
+            for (JsonElement poolElement : LootJson.array(table, "pools")) {
+                JsonObject pool = poolElement.getAsJsonObject();
+                JsonArray entries = LootJson.array(pool, "entries");
+                if (entries.size() > MAX_ENTRIES_PER_POOL) {
+                    throw new UnsupportedOperationException("too many entries in pool");
+                }
+
+                JsonElement bonus = pool.get("bonus_rolls");
+                if (bonus != null && !bonus.isJsonPrimitive()) {
+                    throw new UnsupportedOperationException("non-constant bonus rolls");
+                }
+
+                float[] rolls = range(pool.get("rolls"));
+                poolChance.add(chance(LootJson.array(pool, "conditions")));
+                poolRollsMin.add(Math.round(rolls[0]));
+                poolRollsMax.add(Math.round(rolls[1]));
+                poolBonusRolls.add(bonus != null ? bonus.getAsFloat() : 0.0f);
+                poolEntryStart.add(entryItem.size());
+
+                for (JsonElement entryElement : entries) {
+                    entry(entryElement.getAsJsonObject(), LootJson.array(pool, "functions"), tableFunctions);
+                }
+                poolEntryEnd.add(entryItem.size());
+            }
+
+            return new CompiledLootTable(this);
+        }
+
+        private void entry(JsonObject entry, JsonArray poolFunctions, JsonArray tableFunctions) {
+            String type = LootJson.id(entry, "type");
+            int item;
+            if (type.equals("minecraft:empty")) {
+                item = -1;
+            } else if (type.equals("minecraft:item")) {
+                item = item(LootJson.id(entry, "name"));
+            } else {
+                throw new UnsupportedOperationException("entry type " + type);
+            }
+
+            entryItem.add(item);
+            entryWeight.add(entry.has("weight") ? entry.get("weight").getAsInt() : 1);
+            entryQuality.add(entry.has("quality") ? entry.get("quality").getAsInt() : 0);
+            entryChance.add(chance(LootJson.array(entry, "conditions")));
+
+            entryFunctionStart.add(fnType.size());
+            functions(LootJson.array(entry, "functions"));
+            functions(poolFunctions);
+            functions(tableFunctions);
+            entryFunctionEnd.add(fnType.size());
+        }
+
+        private int item(String id) {
+            Item item = BuiltInRegistries.ITEM.get(ResourceLocation.parse(id));
+            if (item == Items.AIR || !item.isEnabled(level.enabledFeatures())) {
+                // Disabled items are dropped by vanilla's stack splitter
+                return -1;
+            }
+
+            int index = items.indexOf(item);
+            if (index < 0) {
+                items.add(item);
+                index = items.size() - 1;
+            }
+            return index;
+        }
+
+        private void functions(JsonArray functions) {
+            for (JsonElement element : functions) {
+                JsonObject function = element.getAsJsonObject();
+                String id = LootJson.id(function, "function");
+                float chance = chance(LootJson.array(function, "conditions"));
+
+                switch (id) {
+                    case "minecraft:set_count" -> {
+                        JsonElement count = function.get("count");
+                        fnType.add(FN_SET_COUNT);
+                        fnChance.add(chance);
+                        number(count);
+                        fnAdd.add(function.has("add") && function.get("add").getAsBoolean());
+                    }
+                    case "minecraft:limit_count" -> {
+                        JsonObject limit = function.getAsJsonObject("limit");
+                        fnType.add(FN_LIMIT_COUNT);
+                        fnChance.add(chance);
+                        fnDist.add(DIST_CONSTANT);
+                        fnA.add(limit.has("min") ? constant(limit.get("min")) : Integer.MIN_VALUE);
+                        fnB.add(limit.has("max") ? constant(limit.get("max")) : Integer.MAX_VALUE);
+                        fnAdd.add(false);
+                    }
+                    // No attacker or explosion in the loot context - these never change the count
+                    case "minecraft:enchanted_count_increase", "minecraft:explosion_decay" -> {
+                    }
+                    default -> throw new UnsupportedOperationException("function " + id);
+                }
+            }
+        }
+
+        private void number(JsonElement json) {
+            if (json == null) {
+                throw new UnsupportedOperationException("missing number");
+            }
+            if (json.isJsonPrimitive()) {
+                fnDist.add(DIST_CONSTANT);
+                fnA.add(json.getAsFloat());
+                fnB.add(0.0f);
+                return;
+            }
+
+            JsonObject number = json.getAsJsonObject();
+            String type = number.has("type") ? LootJson.id(number, "type") : "minecraft:uniform";
+            switch (type) {
+                case "minecraft:constant" -> {
+                    fnDist.add(DIST_CONSTANT);
+                    fnA.add(number.get("value").getAsFloat());
+                    fnB.add(0.0f);
+                }
+                case "minecraft:uniform" -> {
+                    fnDist.add(DIST_UNIFORM);
+                    fnA.add(constant(number.get("min")));
+                    fnB.add(constant(number.get("max")));
+                }
+                case "minecraft:binomial" -> {
+                    fnDist.add(DIST_BINOMIAL);
+                    fnA.add(constant(number.get("n")));
+                    fnB.add(constant(number.get("p")));
+                }
+                default -> throw new UnsupportedOperationException("number provider " + type);
+            }
+        }
+
+        /**
+         * Rolls as an integer range {min, max}
+         */
+        private float[] range(JsonElement json) {
+            if (json == null || json.isJsonPrimitive()) {
+                float value = json == null ? 1.0f : json.getAsFloat();
+                return new float[]{value, value};
+            }
+
+            JsonObject number = json.getAsJsonObject();
+            String type = number.has("type") ? LootJson.id(number, "type") : "minecraft:uniform";
+            if (type.equals("minecraft:constant")) {
+                float value = number.get("value").getAsFloat();
+                return new float[]{value, value};
+            }
+            if (type.equals("minecraft:uniform")) {
+                return new float[]{constant(number.get("min")), constant(number.get("max"))};
+            }
+            throw new UnsupportedOperationException("rolls provider " + type);
+        }
+
+        private float constant(JsonElement json) {
+            if (json != null && json.isJsonPrimitive()) {
+                return json.getAsFloat();
+            }
+            if (json != null && json.isJsonObject() && LootJson.id(json.getAsJsonObject(), "type").equals("minecraft:constant")) {
+                return json.getAsJsonObject().get("value").getAsFloat();
+            }
+            throw new UnsupportedOperationException("non-constant number");
+        }
+
+        /**
+         * Probability that all conditions in the list pass
+         */
+        private float chance(JsonArray conditions) {
+            float chance = 1.0f;
+            for (JsonElement condition : conditions) {
+                chance *= condition(condition.getAsJsonObject());
+            }
+            return chance;
+        }
+
+        private float condition(JsonObject condition) {
+            String id = LootJson.id(condition, "condition");
+            switch (id) {
+                case "minecraft:random_chance":
+                    return Mth.clamp(constant(condition.get("chance")), 0.0f, 1.0f);
+                case "minecraft:random_chance_with_enchanted_bonus":
+                    return Mth.clamp(condition.get("unenchanted_chance").getAsFloat(), 0.0f, 1.0f);
+                case "minecraft:killed_by_player":
+                    return 0.0f;
+                case "minecraft:inverted":
+                    return 1.0f - condition(condition.getAsJsonObject("term"));
+                case "minecraft:all_of":
+                    return chance(LootJson.array(condition, "terms"));
+                case "minecraft:any_of": {
+                    float none = 1.0f;
+                    for (JsonElement term : LootJson.array(condition, "terms")) {
+                        none *= 1.0f - condition(term.getAsJsonObject());
+                    }
+                    return 1.0f - none;
+                }
+                default:
+                    throw new UnsupportedOperationException("condition " + id);
+            }
+        }
+    }
+
+    // Minimal growable primitive lists for the builder
+
+    private static class IntList {
+        private int[] data = new int[8];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = java.util.Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toIntArray() {
+            return java.util.Arrays.copyOf(data, size);
+        }
+    }
+
+    private static class FloatList {
+        private float[] data = new float[8];
+        private int size = 0;
+
+        void add(float value) {
+            if (size == data.length) {
+                data = java.util.Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        float[] toFloatArray() {
+            return java.util.Arrays.copyOf(data, size);
+        }
+    }
+
+    private static class ByteList {
+        private byte[] data = new byte[8];
+        private int size = 0;
+
+        void add(byte value) {
+            if (size == data.length) {
+                data = java.util.Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toByteArray() {
+            return java.util.Arrays.copyOf(data, size);
+        }
+    }
+
+    private static class BooleanList {
+        private boolean[] data = new boolean[8];
+        private int size = 0;
+
+        void add(boolean value) {
+            if (size == data.length) {
+                data = java.util.Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        boolean[] toBooleanArray() {
+            return java.util.Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ipsis.woot.loot;
+
+import ipsis.woot.Woot;
+import ipsis.woot.util.LootHelper;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.item.ItemStack;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One spawn cycle's worth of loot being generated by the LootPipeline
+ * Holds the captured inputs so the heart can finish the cycle when the drops arrive
+ */
+public class LootJob {
+
+    private final ServerLevel level;
+    private final EntityType<?> entityType;
+    private final int lootingLevel;
+    private final int mobCount;
+    private final long seed;
+
+    @Nullable
+    private final LootHelper.PreparedLoot prepared;
+    private final CompletableFuture<LootRoll> future;
+
+    LootJob(@Nonnull ServerLevel level, @Nonnull EntityType<?> entityType, int lootingLevel, int mobCount, long seed,
+            @Nullable LootHelper.PreparedLoot prepared, @Nonnull CompletableFuture<LootRoll> future) {
+        this.level = level;
+        this.entityType = entityType;
+        this.lootingLevel = lootingLevel;
+        this.mobCount = mobCount;
+        this.seed = seed;
+        this.prepared = prepared;
+        this.future = future;
+    }
+
+    @Nonnull
+    public EntityType<?> getEntityType() {
+        return entityType;
+    }
+
+    public int getLootingLevel() {
+        return lootingLevel;
+    }
+
+    public int getMobCount() {
+        return mobCount;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Check if the drops are ready
+     */
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Get the merged drops, waiting for the worker if needed
+     * Must be called on the server thread - a failed worker roll is redone here and the
+     * table is kept on the server thread from then on. Real per-mob rolls train the LootModel.
+     */
+    @Nonnull
+    public List<ItemStack> join() {
+        List<ItemStack> drops;
+        try {
+            LootRoll roll = future.join();
+            if (roll.perMobDrops() != null) {
+                LootModel.get(entityType, lootingLevel).record(roll.perMobDrops());
+            }
+            drops = roll.drops();
+        } catch (Exception e) {
+            if (prepared != null) {
+                Woot.LOGGER.warn("Off-thread loot for {} failed ({}), using the server thread from now on",
+                    entityType, e.getMessage());
+                LootSafety.markUnsafe(prepared.lootTableKey());
+            }
+            drops = LootHelper.mergeItemStacks(LootHelper.generateLoot(level, entityType, lootingLevel, mobCount));
+        }
+        return drops != null ? drops : new ArrayList<>();
+    }
+}
@@ -0,0 +1,51 @@
+package ipsis.woot.loot;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.mojang.serialization.JsonOps;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.storage.loot.LootTable;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Helpers for inspecting loot tables through their codec JSON form
+ * Avoids depending on the private fields of the vanilla loot classes
+ */
+public class LootJson {
+
+    /**
+     * Encode a loot table to JSON
+     * @throws IllegalStateException if the table cannot be encoded
+     */
+    @Nonnull
+    public static JsonElement encode(@Nonnull ServerLevel level, @Nonnull LootTable table) {
+        return LootTable.DIRECT_CODEC
+            .encodeStart(level.registryAccess().createSerializationContext(JsonOps.INSTANCE), table)
+            .getOrThrow();
+    }
+
+    /**
+     * Get an array member, or an empty array if missing
+     */
+    @Nonnull
+    public static JsonArray array(@Nonnull JsonObject owner, @Nonnull String name) {
+        JsonElement element = owner.get(name);
+        return element != null && element.isJsonArray() ? element.getAsJsonArray() : new JsonArray();
+    }
+
+    /**
+     * Get a namespaced id member, defaulting the namespace to minecraft
+     * Returns an empty string if missing
+     */
+    @Nonnull
+    public static String id(@Nonnull JsonObject owner, @Nonnull String name) {
+        JsonElement element = owner.get(name);
+        if (element == null || !element.isJsonPrimitive()) {
+            return "";
+        }
+        String id = element.getAsString();
+        return id.indexOf(':') < 0 ? "minecraft:" + id : id;
+    }
+}
@@ -0,0 +1,176 @@
+package ipsis.woot.loot;
+
+import ipsis.woot.util.FactoryRolls;
+import ipsis.woot.util.RandomSourceGenerator;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.item.ItemStack;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Learned per-mob drop distribution for one entity type at one looting level
+ *
+ * Every real loot roll is recorded as a per-mob sample: for each distinct drop the model keeps a
+ * histogram of how many of it one mob dropped. Once enough mobs have been seen, a cycle's drops
+ * can be synthesized from the histograms - per item, the total for n mobs is drawn from the
+ * empirical distribution (a multinomial split of the mobs over the histogram buckets for small n,
+ * a normal approximation of the sum for large n).
+ * Items are drawn independently, so only per-item totals are reproduced, not correlations.
+ *
+ * Models are shared by every factory running the same mob at the same looting level rather than
+ * kept per factory: the loot context a factory rolls with depends on nothing else, so all of them
+ * learn the same distribution, and a newly built factory can synthesize from the start.
+ *
+ * Only accessed on the server thread.
+ */
+public class LootModel {
+
+    // Per-mob counts above this share the top bucket
+    private static final int MAX_TRACKED_COUNT = 64;
+
+    // Mob counts from which the sum is drawn from a normal approximation
+    private static final int NORMAL_APPROXIMATION_MIN_MOBS = 30;
+
+    private record Key(EntityType<?> entityType, int lootingLevel) {
+    }
+
+    private static final Map<Key, LootModel> MODELS = new HashMap<>();
+
+    // Mobs observed
+    private int samples = 0;
+
+    // Distinct drops (count 1) and, per drop, the number of mobs that dropped k of it (k >= 1)
+    private final List<ItemStack> prototypes = new ArrayList<>();
+    private final List<int[]> histograms = new ArrayList<>();
+    private final List<long[]> moments = new ArrayList<>(); // {sum, sum of squares, max}
+
+    /**
+     * Get (or create) the model for an entity type and looting level
+     */
+    @Nonnull
+    public static LootModel get(@Nonnull EntityType<?> entityType, int lootingLevel) {
+        return MODELS.computeIfAbsent(new Key(entityType, lootingLevel), k -> new LootModel());
+    }
+
+    /**
+     * Forget all learned distributions (data pack reload, server stop)
+     */
+    public static void clear() {
+        MODELS.clear();
+    }
+
+    /**
+     * Number of mobs this model has learned from
+     */
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * Record one real roll per mob
+     */
+    public void record(@Nonnull List<List<ItemStack>> perMobDrops) {
+        int[] counts = new int[prototypes.size()];
+
+        for (List<ItemStack> mobDrops : perMobDrops) {
+            Arrays.fill(counts, 0);
+            for (ItemStack drop : mobDrops) {
+                if (drop.isEmpty()) {
+                    continue;
+                }
+                int index = indexOf(drop);
+                if (index >= counts.length) {
+                    counts = Arrays.copyOf(counts, prototypes.size());
+                }
+                counts[index] += drop.getCount();
+            }
+
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    histograms.get(i)[Math.min(counts[i], MAX_TRACKED_COUNT)]++;
+                    long[] m = moments.get(i);
+                    m[0] += counts[i];
+                    m[1] += (long) counts[i] * counts[i];
+                    m[2] = Math.max(m[2], counts[i]);
+                }
+            }
+            samples++;
+        }
+    }
+
+    /**
+     * Draw the drops of mobCount mobs from the learned distribution
+     */
+    @Nonnull
+    public List<ItemStack> synthesize(int mobCount, @Nonnull RandomSource random) {
+        List<ItemStack> drops = new ArrayList<>();
+        if (samples == 0) {
+            return drops;
+        }
+
+        for (int i = 0; i < prototypes.size(); i++) {
+            long total = mobCount < NORMAL_APPROXIMATION_MIN_MOBS
+                ? drawExact(i, mobCount, random)
+                : drawApproximate(i, mobCount, random);
+
+            // Split into stacks the exporters can take
+            ItemStack prototype = prototypes.get(i);
+            int maxStack = Math.max(1, prototype.getMaxStackSize());
+            while (total > 0) {
+                int size = (int) Math.min(total, maxStack);
+                drops.add(prototype.copyWithCount(size));
+                total -= size;
+            }
+        }
+        return drops;
+    }
+
+    private long drawExact(int item, int mobCount, @Nonnull RandomSource random) {
+        int[] histogram = histograms.get(item);
+        RandomGenerator generator = RandomSourceGenerator.of(random);
+        long total = 0;
+
+        // Split the mobs over the buckets one binomial at a time, the rest dropped none
+        int mobsLeft = mobCount;
+        int samplesLeft = samples;
+        for (int k = 1; k < histogram.length && mobsLeft > 0; k++) {
+            if (histogram[k] == 0) {
+                continue;
+            }
+            int mobs = FactoryRolls.binomial(generator, mobsLeft, histogram[k] / (double) samplesLeft);
+            total += (long) k * mobs;
+            mobsLeft -= mobs;
+            samplesLeft -= histogram[k];
+        }
+        return total;
+    }
+
+    private long drawApproximate(int item, int mobCount, @Nonnull RandomSource random) {
+        long[] m = moments.get(item);
+        double mean = m[0] / (double) samples;
+        double variance = Math.max(0.0, m[1] / (double) samples - mean * mean);
+
+        double total = mobCount * mean + Math.sqrt(mobCount * variance) * random.nextGaussian();
+        return Math.max(0L, Math.min(m[2] * mobCount, Math.round(total)));
+    }
+
+    private int indexOf(@Nonnull ItemStack drop) {
+        for (int i = 0; i < prototypes.size(); i++) {
+            if (ItemStack.isSameItemSameComponents(prototypes.get(i), drop)) {
+                return i;
+            }
+        }
+
+        prototypes.add(drop.copyWithCount(1));
+        histograms.add(new int[MAX_TRACKED_COUNT + 1]);
+        moments.add(new long[3]);
+        return prototypes.size() - 1;
+    }
+}
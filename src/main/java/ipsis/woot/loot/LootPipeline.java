@@ -0,0 +1,133 @@
+package ipsis.woot.loot;
+
+import ipsis.woot.config.WootConfig;
+import ipsis.woot.jfr.LootGenerationEvent;
+import ipsis.woot.util.LootHelper;
+import ipsis.woot.util.WootWorkerPool;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.item.ItemStack;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loot generation stage for spawn cycles
+ *
+ * The inputs (entity type, looting, mob count and a seed forked from the level RNG) are captured
+ * on the server thread. Tables that LootSafety accepts are rolled and merged on the worker pool and
+ * collected by the heart on a later tick; everything else is rolled on the server thread straight away.
+ *
+ * In statistical mode, once the LootModel for the mob has seen enough real rolls, drops are drawn
+ * from it instead - except for a configurable share of audit cycles that roll the real table and
+ * keep training the model.
+ */
+public class LootPipeline {
+
+    /**
+     * Start generating loot for a spawn cycle
+     * Must be called on the server thread
+     *
+     * @param heartPos Position of the heart running the cycle, for profiling events
+     * @param tier Factory tier level, for profiling events
+     */
+    @Nonnull
+    public static LootJob submit(@Nonnull ServerLevel level, @Nonnull BlockPos heartPos, int tier,
+                                 @Nonnull EntityType<?> entityType, int lootingLevel, int mobCount) {
+        long seed = level.random.nextLong();
+        boolean learn = WootConfig.STATISTICAL_LOOT.get();
+
+        if (learn) {
+            LootModel model = LootModel.get(entityType, lootingLevel);
+            boolean audit = level.random.nextInt(100) < WootConfig.STATISTICAL_LOOT_AUDIT_PERCENT.get();
+            if (!audit && model.getSamples() >= WootConfig.STATISTICAL_LOOT_MIN_SAMPLES.get()) {
+                LootGenerationEvent event = new LootGenerationEvent();
+                event.begin();
+                List<ItemStack> drops = LootHelper.mergeItemStacks(model.synthesize(mobCount, RandomSource.create(seed)));
+                commit(event, heartPos, tier, entityType, lootingLevel, mobCount, "statistical", drops);
+                return new LootJob(level, entityType, lootingLevel, mobCount, seed, null,
+                    CompletableFuture.completedFuture(new LootRoll(drops, null)));
+            }
+        }
+
+        LootHelper.PreparedLoot prepared = LootHelper.prepareLoot(level, entityType, lootingLevel);
+        if (prepared == null) {
+            return new LootJob(level, entityType, lootingLevel, mobCount, seed, null,
+                CompletableFuture.completedFuture(new LootRoll(new ArrayList<>(), null)));
+        }
+
+        if (LootSafety.isOffThreadSafe(level, prepared.lootTableKey())) {
+            CompletableFuture<LootRoll> future = new CompletableFuture<>();
+            boolean accepted = WootWorkerPool.execute(() -> {
+                try {
+                    future.complete(roll(prepared, heartPos, tier, lootingLevel, mobCount, seed, learn));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+
+            if (accepted) {
+                return new LootJob(level, entityType, lootingLevel, mobCount, seed, prepared, future);
+            }
+        }
+
+        // Server thread - same seeded roll, available immediately
+        CompletableFuture<LootRoll> future = new CompletableFuture<>();
+        try {
+            future.complete(roll(prepared, heartPos, tier, lootingLevel, mobCount, seed, learn));
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return new LootJob(level, entityType, lootingLevel, mobCount, seed, prepared, future);
+    }
+
+    @Nonnull
+    private static LootRoll roll(@Nonnull LootHelper.PreparedLoot prepared, @Nonnull BlockPos heartPos, int tier,
+                                 int lootingLevel, int mobCount, long seed, boolean keepPerMob) {
+        LootGenerationEvent event = new LootGenerationEvent();
+        event.begin();
+
+        LootRoll roll;
+        if (!keepPerMob) {
+            roll = new LootRoll(LootHelper.mergeItemStacks(LootHelper.rollLoot(prepared, mobCount, RandomSource.create(seed))), null);
+        } else {
+            List<List<ItemStack>> perMob = LootHelper.rollLootPerMob(prepared, mobCount, RandomSource.create(seed));
+
+            List<ItemStack> drops = new ArrayList<>();
+            for (List<ItemStack> mobDrops : perMob) {
+                drops.addAll(mobDrops);
+            }
+            roll = new LootRoll(LootHelper.mergeItemStacks(drops), perMob);
+        }
+
+        commit(event, heartPos, tier, prepared.entityType(), lootingLevel, mobCount,
+            prepared.compiled() != null ? "compiled" : "vanilla", roll.drops());
+        return roll;
+    }
+
+    private static void commit(@Nonnull LootGenerationEvent event, @Nonnull BlockPos heartPos, int tier,
+                               @Nonnull EntityType<?> entityType, int lootingLevel, int mobCount,
+                               @Nonnull String mode, @Nonnull List<ItemStack> drops) {
+        if (!event.shouldCommit()) {
+            return;
+        }
+
+        long items = 0;
+        for (ItemStack drop : drops) {
+            items += drop.getCount();
+        }
+
+        event.setFactory(heartPos, tier, BuiltInRegistries.ENTITY_TYPE.getKey(entityType).toString());
+        event.mobCount = mobCount;
+        event.looting = lootingLevel;
+        event.mode = mode;
+        event.stackCount = drops.size();
+        event.itemCount = items;
+        event.commit();
+    }
+}
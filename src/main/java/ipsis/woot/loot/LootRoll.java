@@ -0,0 +1,14 @@
+package ipsis.woot.loot;
+
+import net.minecraft.world.item.ItemStack;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Result of a loot job - the merged drops and, for real rolls that should train the
+ * LootModel, each mob's drops
+ */
+public record LootRoll(@Nonnull List<ItemStack> drops, @Nullable List<List<ItemStack>> perMobDrops) {
+}
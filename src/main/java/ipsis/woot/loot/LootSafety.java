@@ -0,0 +1,265 @@
+package ipsis.woot.loot;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import ipsis.woot.Woot;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.storage.loot.LootTable;
+import net.neoforged.neoforge.common.NeoForgeEventHandler;
+
+import javax.annotation.Nonnull;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides whether a loot table can be rolled off the server thread
+ *
+ * A table is safe when every entry, function, condition and number provider it uses (including
+ * tables it references) is on a whitelist of types that only read the loot context and the
+ * template entity. Anything else - modded functions, level or scoreboard lookups - keeps the
+ * table on the server thread. Entity predicates are only accepted when they check nothing but
+ * the entity itself, location style sub-predicates read the level. Global loot modifiers run arbitrary code, so while any are loaded
+ * every table stays on the server thread.
+ */
+public class LootSafety {
+
+    private static final Set<String> SAFE_ENTRIES = Set.of(
+        "minecraft:item", "minecraft:empty", "minecraft:tag",
+        "minecraft:alternatives", "minecraft:group", "minecraft:sequence",
+        "minecraft:loot_table");
+
+    private static final Set<String> SAFE_FUNCTIONS = Set.of(
+        "minecraft:set_count", "minecraft:enchanted_count_increase", "minecraft:limit_count",
+        "minecraft:explosion_decay", "minecraft:set_components", "minecraft:set_custom_data",
+        "minecraft:set_name", "minecraft:set_lore", "minecraft:set_damage", "minecraft:set_potion",
+        "minecraft:set_stew_effect", "minecraft:set_ominous_bottle_amount");
+
+    private static final Set<String> SAFE_CONDITIONS = Set.of(
+        "minecraft:random_chance", "minecraft:random_chance_with_enchanted_bonus",
+        "minecraft:killed_by_player", "minecraft:entity_properties",
+        "minecraft:damage_source_properties", "minecraft:inverted",
+        "minecraft:any_of", "minecraft:all_of");
+
+    // Entity predicate fields that only read the entity - location, stepping_on,
+    // movement_affected_by and the like read the level and are left out
+    private static final Set<String> SAFE_ENTITY_PREDICATE_FIELDS = Set.of(
+        "type", "flags", "nbt", "equipment", "effects", "distance");
+
+    private static final Set<String> SAFE_NUMBER_PROVIDERS = Set.of(
+        "minecraft:constant", "minecraft:uniform", "minecraft:binomial");
+
+    // Verdict per table - cleared when the server stops or data is reloaded
+    private static final Map<ResourceKey<LootTable>, Boolean> verdicts = new ConcurrentHashMap<>();
+
+    /**
+     * Check if a loot table can be rolled off the server thread
+     * Must be called on the server thread
+     */
+    public static boolean isOffThreadSafe(@Nonnull ServerLevel level, @Nonnull ResourceKey<LootTable> key) {
+        if (hasGlobalLootModifiers()) {
+            return false;
+        }
+
+        Boolean verdict = verdicts.get(key);
+        if (verdict == null) {
+            verdict = checkTable(level, key, new HashSet<>());
+            verdicts.put(key, verdict);
+            Woot.LOGGER.debug("Loot table {} off-thread safe: {}", key.location(), verdict);
+        }
+        return verdict;
+    }
+
+    /**
+     * Check if any global loot modifiers are loaded - they run on every vanilla loot roll
+     */
+    public static boolean hasGlobalLootModifiers() {
+        return !NeoForgeEventHandler.getLootModifierManager().getAllLootMods().isEmpty();
+    }
+
+    /**
+     * Keep a table on the server thread from now on (e.g. after it failed on a worker)
+     */
+    public static void markUnsafe(@Nonnull ResourceKey<LootTable> key) {
+        verdicts.put(key, false);
+    }
+
+    /**
+     * Forget all verdicts
+     */
+    public static void clear() {
+        verdicts.clear();
+    }
+
+    private static boolean checkTable(@Nonnull ServerLevel level, @Nonnull ResourceKey<LootTable> key, @Nonnull Set<ResourceKey<LootTable>> visited) {
+        if (!visited.add(key)) {
+            return true;
+        }
+
+        try {
+            LootTable table = level.getServer().reloadableRegistries().getLootTable(key);
+            JsonElement json = LootJson.encode(level, table);
+            return isTableSafe(level, json, visited);
+        } catch (Exception e) {
+            Woot.LOGGER.debug("Could not inspect loot table {}: {}", key.location(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean isTableSafe(@Nonnull ServerLevel level, @Nonnull JsonElement json, @Nonnull Set<ResourceKey<LootTable>> visited) {
+        if (!json.isJsonObject()) {
+            return false;
+        }
+
+        JsonObject table = json.getAsJsonObject();
+        if (!areFunctionsSafe(table)) {
+            return false;
+        }
+
+        for (JsonElement poolElement : LootJson.array(table, "pools")) {
+            if (!poolElement.isJsonObject()) {
+                return false;
+            }
+            JsonObject pool = poolElement.getAsJsonObject();
+            if (!areConditionsSafe(pool) || !areFunctionsSafe(pool)
+                    || !isNumberSafe(pool.get("rolls")) || !isNumberSafe(pool.get("bonus_rolls"))) {
+                return false;
+            }
+            for (JsonElement entry : LootJson.array(pool, "entries")) {
+                if (!isEntrySafe(level, entry, visited)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isEntrySafe(@Nonnull ServerLevel level, @Nonnull JsonElement json, @Nonnull Set<ResourceKey<LootTable>> visited) {
+        if (!json.isJsonObject()) {
+            return false;
+        }
+
+        JsonObject entry = json.getAsJsonObject();
+        String type = LootJson.id(entry, "type");
+        if (!SAFE_ENTRIES.contains(type) || !areConditionsSafe(entry) || !areFunctionsSafe(entry)) {
+            return false;
+        }
+
+        if (type.equals("minecraft:loot_table")) {
+            JsonElement value = entry.get("value");
+            if (value == null) {
+                return false;
+            }
+            if (value.isJsonPrimitive()) {
+                ResourceKey<LootTable> referenced = ResourceKey.create(Registries.LOOT_TABLE, ResourceLocation.parse(value.getAsString()));
+                return checkTable(level, referenced, visited);
+            }
+            return isTableSafe(level, value, visited);
+        }
+
+        for (JsonElement child : LootJson.array(entry, "children")) {
+            if (!isEntrySafe(level, child, visited)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean areFunctionsSafe(@Nonnull JsonObject owner) {
+        for (JsonElement json : LootJson.array(owner, "functions")) {
+            if (!json.isJsonObject()) {
+                return false;
+            }
+            JsonObject function = json.getAsJsonObject();
+            if (!SAFE_FUNCTIONS.contains(LootJson.id(function, "function")) || !areConditionsSafe(function)
+                    || !isNumberSafe(function.get("count")) || !isNumberSafe(function.get("damage"))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean areConditionsSafe(@Nonnull JsonObject owner) {
+        for (JsonElement condition : LootJson.array(owner, "conditions")) {
+            if (!isConditionSafe(condition)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isConditionSafe(@Nonnull JsonElement json) {
+        if (!json.isJsonObject()) {
+            return false;
+        }
+
+        JsonObject condition = json.getAsJsonObject();
+        String type = LootJson.id(condition, "condition");
+        if (!SAFE_CONDITIONS.contains(type)) {
+            return false;
+        }
+        if (type.equals("minecraft:entity_properties") && !isEntityPredicateSafe(condition.get("predicate"))) {
+            return false;
+        }
+        if (type.equals("minecraft:damage_source_properties") && !isDamageSourcePredicateSafe(condition.get("predicate"))) {
+            return false;
+        }
+        if (condition.has("term") && !isConditionSafe(condition.get("term"))) {
+            return false;
+        }
+        for (JsonElement term : LootJson.array(condition, "terms")) {
+            if (!isConditionSafe(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isEntityPredicateSafe(JsonElement json) {
+        if (json == null) {
+            return true;
+        }
+        if (!json.isJsonObject()) {
+            return false;
+        }
+        for (String field : json.getAsJsonObject().keySet()) {
+            if (!SAFE_ENTITY_PREDICATE_FIELDS.contains(field)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDamageSourcePredicateSafe(JsonElement json) {
+        if (json == null) {
+            return true;
+        }
+        if (!json.isJsonObject()) {
+            return false;
+        }
+        JsonObject predicate = json.getAsJsonObject();
+        return isEntityPredicateSafe(predicate.get("source_entity")) && isEntityPredicateSafe(predicate.get("direct_entity"));
+    }
+
+    private static boolean isNumberSafe(JsonElement json) {
+        if (json == null || json.isJsonPrimitive()) {
+            return true;
+        }
+        if (!json.isJsonObject()) {
+            return false;
+        }
+
+        JsonObject number = json.getAsJsonObject();
+        // Untyped objects are uniform ranges ({"min": .., "max": ..})
+        String type = number.has("type") ? LootJson.id(number, "type") : "minecraft:uniform";
+        if (!SAFE_NUMBER_PROVIDERS.contains(type)) {
+            return false;
+        }
+        return isNumberSafe(number.get("min")) && isNumberSafe(number.get("max"))
+            && isNumberSafe(number.get("n")) && isNumberSafe(number.get("p"));
+    }
+}
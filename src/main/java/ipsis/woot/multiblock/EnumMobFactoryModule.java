@@ -1,5 +1,8 @@
 package ipsis.woot.multiblock;
 
+import ipsis.woot.Woot;
+import net.minecraft.world.level.block.Block;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -41,6 +44,25 @@ public enum EnumMobFactoryModule {
         return displayName;
     }
 
+    /**
+     * Get the block placed for this module
+     */
+    @Nonnull
+    public Block getBlock() {
+        return switch (this) {
+            case STRUCTURE_BLOCK_1 -> Woot.STRUCTURE_BLOCK_1.get();
+            case STRUCTURE_BLOCK_2 -> Woot.STRUCTURE_BLOCK_2.get();
+            case STRUCTURE_BLOCK_3 -> Woot.STRUCTURE_BLOCK_3.get();
+            case STRUCTURE_BLOCK_4 -> Woot.STRUCTURE_BLOCK_4.get();
+            case STRUCTURE_BLOCK_5 -> Woot.STRUCTURE_BLOCK_5.get();
+            case STRUCTURE_UPGRADE -> Woot.STRUCTURE_BLOCK_UPGRADE.get();
+            case STRUCTURE_TIER_I_CAP -> Woot.STRUCTURE_TIER_I_CAP.get();
+            case STRUCTURE_TIER_II_CAP -> Woot.STRUCTURE_TIER_II_CAP.get();
+            case STRUCTURE_TIER_III_CAP -> Woot.STRUCTURE_TIER_III_CAP.get();
+            case STRUCTURE_TIER_IV_CAP -> Woot.STRUCTURE_TIER_IV_CAP.get();
+        };
+    }
+
     /**
      * Check if a character is valid for pattern parsing
      */
@@ -12,9 +12,16 @@ import java.util.*;
  * Repository for mob factory multiblock patterns
  * Stores ASCII pattern definitions for all 4 tiers
  * Based on the original Woot 1.12.2 implementation
+ *
+ * The patterns never change once loaded, so one shared repository serves every scanner.
  */
 public class FactoryPatternRepository {
 
+    // Built on first use - the pattern arrays below must be initialised first
+    private static class Holder {
+        private static final FactoryPatternRepository INSTANCE = new FactoryPatternRepository();
+    }
+
     private final Map<EnumMobFactoryTier, FactoryTierPattern> tiers = new HashMap<>();
     private int maxYOffset = 0;
     private int maxXZOffset = 0;
@@ -26,6 +33,14 @@ public class FactoryPatternRepository {
         loadPattern(EnumMobFactoryTier.TIER_IV, TIER_IV_PATTERN);
     }
 
+    /**
+     * Get the shared repository
+     */
+    @Nonnull
+    public static FactoryPatternRepository get() {
+        return Holder.INSTANCE;
+    }
+
     /**
      * Load a tier pattern from ASCII definition
      */
@@ -101,6 +116,10 @@ public class FactoryPatternRepository {
             }
         }
 
+        // The layout block centres the pattern on itself with the bottom layer level with it
+        tierPattern.setLayoutOffset(new BlockPos(
+            tierPattern.originCol - depth / 2, tierPattern.originLayer, tierPattern.originRow - width / 2));
+        tierPattern.buildIndex();
         tiers.put(tier, tierPattern);
 
         if (maxYOffset == 0 || maxYOffset < height) {
@@ -125,31 +144,23 @@ public class FactoryPatternRepository {
      */
     @Nullable
     public EnumMobFactoryModule getModule(EnumMobFactoryTier tier, BlockPos offset) {
-        MobFactoryModule module = getMobFactoryModule(tier, offset);
-        return module != null ? module.moduleType : null;
+        return getModule(tier, offset.getX(), offset.getY(), offset.getZ());
     }
 
+    /**
+     * Get the module type at a specific offset in a tier's pattern
+     */
     @Nullable
-    private MobFactoryModule getMobFactoryModule(EnumMobFactoryTier tier, BlockPos offset) {
-        if (!tiers.containsKey(tier)) {
-            return null;
-        }
-
-        for (MobFactoryModule m : tiers.get(tier).modules) {
-            if (m.offset.equals(offset)) {
-                return m;
-            }
-        }
-
-        return null;
+    public EnumMobFactoryModule getModule(EnumMobFactoryTier tier, int dx, int dy, int dz) {
+        FactoryTierPattern pattern = tiers.get(tier);
+        return pattern != null ? pattern.getModule(dx, dy, dz) : null;
     }
 
     /**
      * Check if a module at an offset is valid for a tier
      */
     public boolean isValid(EnumMobFactoryTier tier, EnumMobFactoryModule module, BlockPos offset) {
-        MobFactoryModule factoryModule = getMobFactoryModule(tier, offset);
-        return factoryModule != null && factoryModule.moduleType == module;
+        return getModule(tier, offset) == module;
     }
 
     /**
@@ -157,7 +168,54 @@ public class FactoryPatternRepository {
      */
     @Nonnull
     public List<MobFactoryModule> getAllModules(EnumMobFactoryTier tier) {
-        return tiers.containsKey(tier) ? tiers.get(tier).modules : Collections.emptyList();
+        FactoryTierPattern pattern = tiers.get(tier);
+        return pattern != null ? pattern.modules : Collections.emptyList();
+    }
+
+    /**
+     * Check if an offset is inside the bounding box of a tier's pattern
+     */
+    public boolean isInBounds(EnumMobFactoryTier tier, int dx, int dy, int dz) {
+        FactoryTierPattern pattern = tiers.get(tier);
+        return pattern != null && pattern.isInBounds(dx, dy, dz);
+    }
+
+    /**
+     * Lowest offset of a tier's bounding box
+     */
+    @Nonnull
+    public BlockPos getMinOffset(EnumMobFactoryTier tier) {
+        FactoryTierPattern pattern = tiers.get(tier);
+        return pattern != null ? new BlockPos(pattern.minX, pattern.minY, pattern.minZ) : BlockPos.ZERO;
+    }
+
+    /**
+     * Highest offset of a tier's bounding box
+     */
+    @Nonnull
+    public BlockPos getMaxOffset(EnumMobFactoryTier tier) {
+        FactoryTierPattern pattern = tiers.get(tier);
+        return pattern != null
+            ? new BlockPos(pattern.minX + pattern.sizeX - 1, pattern.minY + pattern.sizeY - 1, pattern.minZ + pattern.sizeZ - 1)
+            : BlockPos.ZERO;
+    }
+
+    /**
+     * Offset of the heart from a layout block showing a tier
+     */
+    @Nonnull
+    public BlockPos getLayoutHeartOffset(EnumMobFactoryTier tier) {
+        FactoryTierPattern pattern = tiers.get(tier);
+        return pattern != null ? pattern.layoutOffset : BlockPos.ZERO;
+    }
+
+    /**
+     * Get the offsets of every module of one type in a tier
+     */
+    @Nonnull
+    public List<BlockPos> getModulePositions(EnumMobFactoryTier tier, EnumMobFactoryModule module) {
+        FactoryTierPattern pattern = tiers.get(tier);
+        return pattern != null ? pattern.getPositions(module) : Collections.emptyList();
     }
 
     /**
@@ -198,15 +256,28 @@ public class FactoryPatternRepository {
 
     /**
      * Internal class to store a tier's pattern information
+     *
+     * Once loaded the modules are indexed in a dense grid over the pattern's bounding box, one byte
+     * per position holding the module ordinal + 1 (0 for no module), so a lookup is a bounds check
+     * and an array read.
      */
     private static class FactoryTierPattern {
+        private static final EnumMobFactoryModule[] MODULES = EnumMobFactoryModule.values();
+
         private int originLayer;
         private int originRow;
         private int originCol;
         private int width;
         private int height;
+        private BlockPos layoutOffset = BlockPos.ZERO;
         private final Map<EnumMobFactoryModule, Integer> blockCounts = new HashMap<>();
-        private final List<MobFactoryModule> modules = new ArrayList<>();
+        private List<MobFactoryModule> modules = new ArrayList<>();
+
+        // Dense index, built by buildIndex()
+        private int minX, minY, minZ;
+        private int sizeX, sizeY, sizeZ;
+        private byte[] grid = new byte[0];
+        private final Map<EnumMobFactoryModule, List<BlockPos>> positions = new EnumMap<>(EnumMobFactoryModule.class);
 
         public void setOrigin(int layer, int row, int col) {
             this.originLayer = layer;
@@ -221,6 +292,10 @@ public class FactoryPatternRepository {
             return new BlockPos(c, l, r);
         }
 
+        public void setLayoutOffset(BlockPos layoutOffset) {
+            this.layoutOffset = layoutOffset;
+        }
+
         public void setWidth(int width) {
             this.width = width;
         }
@@ -248,6 +323,66 @@ public class FactoryPatternRepository {
         public void addModule(MobFactoryModule m) {
             modules.add(m);
         }
+
+        /**
+         * Freeze the module list and build the position index
+         */
+        public void buildIndex() {
+            modules = List.copyOf(modules);
+            if (modules.isEmpty()) {
+                return;
+            }
+
+            int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+            minX = Integer.MAX_VALUE;
+            minY = Integer.MAX_VALUE;
+            minZ = Integer.MAX_VALUE;
+            for (MobFactoryModule m : modules) {
+                minX = Math.min(minX, m.offset.getX());
+                minY = Math.min(minY, m.offset.getY());
+                minZ = Math.min(minZ, m.offset.getZ());
+                maxX = Math.max(maxX, m.offset.getX());
+                maxY = Math.max(maxY, m.offset.getY());
+                maxZ = Math.max(maxZ, m.offset.getZ());
+            }
+            sizeX = maxX - minX + 1;
+            sizeY = maxY - minY + 1;
+            sizeZ = maxZ - minZ + 1;
+            grid = new byte[sizeX * sizeY * sizeZ];
+
+            Map<EnumMobFactoryModule, List<BlockPos>> lists = new EnumMap<>(EnumMobFactoryModule.class);
+            for (MobFactoryModule m : modules) {
+                grid[index(m.offset.getX() - minX, m.offset.getY() - minY, m.offset.getZ() - minZ)] =
+                    (byte) (m.moduleType.ordinal() + 1);
+                lists.computeIfAbsent(m.moduleType, k -> new ArrayList<>()).add(m.offset);
+            }
+            lists.forEach((type, list) -> positions.put(type, List.copyOf(list)));
+        }
+
+        @Nullable
+        public EnumMobFactoryModule getModule(int dx, int dy, int dz) {
+            if (!isInBounds(dx, dy, dz)) {
+                return null;
+            }
+            int value = grid[index(dx - minX, dy - minY, dz - minZ)];
+            return value != 0 ? MODULES[value - 1] : null;
+        }
+
+        public boolean isInBounds(int dx, int dy, int dz) {
+            int x = dx - minX;
+            int y = dy - minY;
+            int z = dz - minZ;
+            return x >= 0 && y >= 0 && z >= 0 && x < sizeX && y < sizeY && z < sizeZ;
+        }
+
+        @Nonnull
+        public List<BlockPos> getPositions(EnumMobFactoryModule m) {
+            return positions.getOrDefault(m, Collections.emptyList());
+        }
+
+        private int index(int x, int y, int z) {
+            return (y * sizeZ + z) * sizeX + x;
+        }
     }
 
     //===========================================
@@ -38,6 +38,10 @@ public record FarmInfoPayload(
     boolean missingIngredients,
     int powerStored,
     int powerCapacity,
+    float energyInPerTick,
+    float energyOutPerTick,
+    float powerStalledPercent,
+    float cyclesPerMinute,
     List<ItemStack> ingredientsItems,
     List<FluidStack> ingredientsFluids,
     List<ItemStack> drops,
@@ -101,6 +105,10 @@ public record FarmInfoPayload(
             ByteBufCodecs.BOOL.encode(buffer, payload.missingIngredients);
             ByteBufCodecs.VAR_INT.encode(buffer, payload.powerStored);
             ByteBufCodecs.VAR_INT.encode(buffer, payload.powerCapacity);
+            ByteBufCodecs.FLOAT.encode(buffer, payload.energyInPerTick);
+            ByteBufCodecs.FLOAT.encode(buffer, payload.energyOutPerTick);
+            ByteBufCodecs.FLOAT.encode(buffer, payload.powerStalledPercent);
+            ByteBufCodecs.FLOAT.encode(buffer, payload.cyclesPerMinute);
             ItemStack.LIST_STREAM_CODEC.encode(buffer, payload.ingredientsItems);
             FLUID_STACK_LIST_CODEC.encode(buffer, payload.ingredientsFluids);
             ItemStack.LIST_STREAM_CODEC.encode(buffer, payload.drops);
@@ -124,6 +132,10 @@ public record FarmInfoPayload(
                 ByteBufCodecs.BOOL.decode(buffer),
                 ByteBufCodecs.VAR_INT.decode(buffer),
                 ByteBufCodecs.VAR_INT.decode(buffer),
+                ByteBufCodecs.FLOAT.decode(buffer),
+                ByteBufCodecs.FLOAT.decode(buffer),
+                ByteBufCodecs.FLOAT.decode(buffer),
+                ByteBufCodecs.FLOAT.decode(buffer),
                 ItemStack.LIST_STREAM_CODEC.decode(buffer),
                 FLUID_STACK_LIST_CODEC.decode(buffer),
                 ItemStack.LIST_STREAM_CODEC.decode(buffer),
@@ -156,6 +168,10 @@ public record FarmInfoPayload(
         info.setMissingIngredients(missingIngredients);
         info.setPowerStored(powerStored);
         info.setPowerCapacity(powerCapacity);
+        info.setEnergyInPerTick(energyInPerTick);
+        info.setEnergyOutPerTick(energyOutPerTick);
+        info.setPowerStalledPercent(powerStalledPercent);
+        info.setCyclesPerMinute(cyclesPerMinute);
         info.setTotalSamples(totalSamples);
         info.setValid(isValid);
 
@@ -184,6 +200,10 @@ public record FarmInfoPayload(
             info.hasMissingIngredients(),
             info.getPowerStored(),
             info.getPowerCapacity(),
+            info.getEnergyInPerTick(),
+            info.getEnergyOutPerTick(),
+            info.getPowerStalledPercent(),
+            info.getCyclesPerMinute(),
             new ArrayList<>(info.getIngredientsItems()),
             new ArrayList<>(info.getIngredientsFluids()),
             new ArrayList<>(info.getDrops()),
@@ -0,0 +1,135 @@
+package ipsis.woot.power;
+
+import net.neoforged.neoforge.energy.IEnergyStorage;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.function.IntConsumer;
+
+/**
+ * Energy bank shared by all cells of a formed factory, owned by the heart
+ *
+ * Stored and capacity are longs so any number of Tier IV cells can be pooled without overflowing.
+ * Cells and the heart hand out views of the pool as their energy capability, the int values
+ * IEnergyStorage needs are saturated at Integer.MAX_VALUE.
+ */
+public class EnergyPool {
+
+    private long stored = 0;
+    private long capacity = 0;
+
+    public long getStored() {
+        return stored;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Set the capacity, anything stored above it is lost
+     */
+    public void setCapacity(long capacity) {
+        this.capacity = Math.max(0, capacity);
+        stored = Math.min(stored, this.capacity);
+    }
+
+    /**
+     * Set the stored energy without clamping to the capacity (for loading from NBT, before the
+     * cells have been attached and the capacity is known)
+     */
+    public void setStored(long stored) {
+        this.stored = Math.max(0, stored);
+    }
+
+    /**
+     * Add energy, up to the capacity
+     * @return the amount actually added
+     */
+    public long deposit(long amount, boolean simulate) {
+        long added = Math.max(0, Math.min(amount, capacity - stored));
+        if (!simulate) {
+            stored += added;
+        }
+        return added;
+    }
+
+    /**
+     * Remove energy
+     * @return the amount actually removed
+     */
+    public long withdraw(long amount, boolean simulate) {
+        long removed = Math.max(0, Math.min(amount, stored));
+        if (!simulate) {
+            stored -= removed;
+        }
+        return removed;
+    }
+
+    /**
+     * Create an IEnergyStorage over the pool with its own transfer limits
+     *
+     * @param onReceived Given the amount after energy was received, may be null
+     */
+    @Nonnull
+    public IEnergyStorage createView(int maxReceive, int maxExtract, @Nullable IntConsumer onReceived) {
+        return new View(maxReceive, maxExtract, onReceived);
+    }
+
+    public static int saturate(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    @Nonnull
+    @Override
+    public String toString() {
+        return String.format("Energy: %d / %d RF", stored, capacity);
+    }
+
+    private class View implements IEnergyStorage {
+        private final int maxReceive;
+        private final int maxExtract;
+        @Nullable
+        private final IntConsumer onReceived;
+
+        private View(int maxReceive, int maxExtract, @Nullable IntConsumer onReceived) {
+            this.maxReceive = maxReceive;
+            this.maxExtract = maxExtract;
+            this.onReceived = onReceived;
+        }
+
+        @Override
+        public int receiveEnergy(int toReceive, boolean simulate) {
+            int received = (int) deposit(Math.min(maxReceive, toReceive), simulate);
+            if (received > 0 && !simulate && onReceived != null) {
+                onReceived.accept(received);
+            }
+            return received;
+        }
+
+        @Override
+        public int extractEnergy(int toExtract, boolean simulate) {
+            return (int) withdraw(Math.min(maxExtract, toExtract), simulate);
+        }
+
+        @Override
+        public int getEnergyStored() {
+            return saturate(stored);
+        }
+
+        @Override
+        public int getMaxEnergyStored() {
+            return saturate(capacity);
+        }
+
+        @Override
+        public boolean canExtract() {
+            return maxExtract > 0;
+        }
+
+        @Override
+        public boolean canReceive() {
+            return maxReceive > 0;
+        }
+    }
+}
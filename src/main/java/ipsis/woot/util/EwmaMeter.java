@@ -0,0 +1,72 @@
+package ipsis.woot.util;
+
+/**
+ * Exponentially weighted moving average of a per-tick quantity
+ *
+ * Amounts are added as they happen, and a held level can be set for on/off signals such as
+ * "stalled on power". The average is brought up to date lazily from the game time, so an owner
+ * that stops ticking (a dormant heart) still decays correctly, and nothing is stored per tick.
+ */
+public class EwmaMeter {
+
+    private final double alpha;
+    private final double decay;
+
+    private double value = 0.0;
+    private double level = 0.0;
+    // Amount added during lastTick
+    private long pending = 0;
+    private long lastTick = -1;
+
+    /**
+     * @param window Number of ticks the average roughly covers
+     */
+    public EwmaMeter(int window) {
+        this.alpha = 1.0 / Math.max(1, window);
+        this.decay = 1.0 - alpha;
+    }
+
+    /**
+     * Add an amount at a game time
+     */
+    public void add(long gameTime, long amount) {
+        advance(gameTime);
+        pending += amount;
+    }
+
+    /**
+     * Set the level held from this game time on
+     */
+    public void setLevel(long gameTime, double level) {
+        advance(gameTime);
+        this.level = level;
+    }
+
+    /**
+     * Average per tick over the ticks before gameTime
+     */
+    public double get(long gameTime) {
+        advance(gameTime);
+        return value;
+    }
+
+    private void advance(long gameTime) {
+        if (lastTick < 0 || gameTime < lastTick) {
+            lastTick = gameTime;
+            return;
+        }
+
+        long elapsed = gameTime - lastTick;
+        if (elapsed == 0) {
+            return;
+        }
+
+        // The tick the pending amount belongs to, then the ticks since that only held the level
+        value += alpha * (level + pending - value);
+        if (elapsed > 1) {
+            value = level + (value - level) * Math.pow(decay, elapsed - 1);
+        }
+        pending = 0;
+        lastTick = gameTime;
+    }
+}
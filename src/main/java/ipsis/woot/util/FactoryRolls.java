@@ -0,0 +1,193 @@
+package ipsis.woot.util;
+
+import javax.annotation.Nonnull;
+import java.util.random.RandomGenerator;
+
+/**
+ * Random rolls for spawn cycles
+ *
+ * Per-mob chances are drawn as a single binomial count instead of one roll per mob, so the cost
+ * does not grow with the Mass upgrade. Sampling is exact: inversion when the expected count is
+ * small, BTPE (Kachitvichyanukul and Schmeiser, 1988) otherwise.
+ *
+ * All rolls use the RandomGenerator they are given, so a seeded generator reproduces the same
+ * results. Nothing here touches Minecraft - the factory wraps its RandomSource with
+ * RandomSourceGenerator, the simulator passes a SplittableRandom.
+ */
+public class FactoryRolls {
+
+    // Expected counts up to this use inversion, above it BTPE
+    private static final double INVERSION_MAX_MEAN = 30.0;
+
+    /**
+     * Single roll that passes with the given probability
+     */
+    public static boolean chance(@Nonnull RandomGenerator random, double probability) {
+        if (probability <= 0.0) {
+            return false;
+        }
+        return probability >= 1.0 || random.nextDouble() < probability;
+    }
+
+    /**
+     * Single 0-100 percentage roll, passing when the roll is at most the percentage
+     * Matches the inclusive nextInt(101) roll the tier shards have always used
+     */
+    public static boolean percent(@Nonnull RandomGenerator random, int percent) {
+        return random.nextInt(101) <= percent;
+    }
+
+    /**
+     * Number of successes in trials independent rolls that each pass with the given probability
+     */
+    public static int binomial(@Nonnull RandomGenerator random, int trials, double probability) {
+        if (trials <= 0 || probability <= 0.0) {
+            return 0;
+        }
+        if (probability >= 1.0) {
+            return trials;
+        }
+
+        // Sample the rarer outcome and flip
+        double p = Math.min(probability, 1.0 - probability);
+        int count = trials * p <= INVERSION_MAX_MEAN
+            ? inversion(random, trials, p)
+            : btpe(random, trials, p);
+        return probability > 0.5 ? trials - count : count;
+    }
+
+    /**
+     * Sequential search through the binomial CDF, p <= 0.5 and n * p small
+     */
+    private static int inversion(@Nonnull RandomGenerator random, int n, double p) {
+        double q = 1.0 - p;
+        double s = p / q;
+        double a = (n + 1) * s;
+        double r0 = Math.exp(n * Math.log1p(-p));
+
+        while (true) {
+            double r = r0;
+            double u = random.nextDouble();
+            int x = 0;
+            while (u > r) {
+                u -= r;
+                x++;
+                if (x > n) {
+                    break;
+                }
+                r *= (a / x - s);
+            }
+            if (x <= n) {
+                return x;
+            }
+            // Rounding ran off the end of the distribution, draw again
+        }
+    }
+
+    /**
+     * Triangle/parallelogram/exponential rejection sampler, p <= 0.5 and n * p large
+     */
+    private static int btpe(@Nonnull RandomGenerator random, int n, double p) {
+        double r = p;
+        double q = 1.0 - r;
+        double fm = n * r + r;
+        int m = (int) Math.floor(fm);
+        double nrq = n * r * q;
+
+        double p1 = Math.floor(2.195 * Math.sqrt(nrq) - 4.6 * q) + 0.5;
+        double xm = m + 0.5;
+        double xl = xm - p1;
+        double xr = xm + p1;
+        double c = 0.134 + 20.5 / (15.3 + m);
+        double a = (fm - xl) / (fm - xl * r);
+        double laml = a * (1.0 + a / 2.0);
+        a = (xr - fm) / (xr * q);
+        double lamr = a * (1.0 + a / 2.0);
+        double p2 = p1 * (1.0 + 2.0 * c);
+        double p3 = p2 + c / laml;
+        double p4 = p3 + c / lamr;
+
+        while (true) {
+            double u = random.nextDouble() * p4;
+            double v = random.nextDouble();
+            int y;
+
+            if (u <= p1) {
+                // Triangular centre, always accepted
+                return (int) Math.floor(xm - p1 * v + u);
+            } else if (u <= p2) {
+                // Parallelogram
+                double x = xl + (u - p1) / c;
+                v = v * c + 1.0 - Math.abs(m - x + 0.5) / p1;
+                if (v > 1.0) {
+                    continue;
+                }
+                y = (int) Math.floor(x);
+            } else if (u <= p3) {
+                // Left exponential tail
+                y = (int) Math.floor(xl + Math.log(v) / laml);
+                if (y < 0) {
+                    continue;
+                }
+                v = v * (u - p2) * laml;
+            } else {
+                // Right exponential tail
+                y = (int) Math.floor(xr - Math.log(v) / lamr);
+                if (y > n) {
+                    continue;
+                }
+                v = v * (u - p3) * lamr;
+            }
+
+            int k = Math.abs(y - m);
+            if (k <= 20 || k >= nrq / 2.0 - 1.0) {
+                // Explicit evaluation of f(y) / f(m)
+                double s = r / q;
+                double aa = s * (n + 1);
+                double f = 1.0;
+                if (m < y) {
+                    for (int i = m + 1; i <= y; i++) {
+                        f *= (aa / i - s);
+                    }
+                } else if (m > y) {
+                    for (int i = y + 1; i <= m; i++) {
+                        f /= (aa / i - s);
+                    }
+                }
+                if (v <= f) {
+                    return y;
+                }
+                continue;
+            }
+
+            // Squeeze using upper and lower bounds on log(f(y))
+            double rho = (k / nrq) * ((k * (k / 3.0 + 0.625) + 0.1666666666666) / nrq + 0.5);
+            double t = -(double) k * k / (2.0 * nrq);
+            double logV = Math.log(v);
+            if (logV < t - rho) {
+                return y;
+            }
+            if (logV > t + rho) {
+                continue;
+            }
+
+            // Final acceptance test with Stirling's formula
+            double x1 = y + 1;
+            double f1 = m + 1;
+            double z = n + 1 - m;
+            double w = n - y + 1;
+            double bound = xm * Math.log(f1 / x1)
+                + (n - m + 0.5) * Math.log(z / w)
+                + (y - m) * Math.log(w * r / (x1 * q))
+                + stirling(f1) + stirling(z) + stirling(x1) + stirling(w);
+            if (logV <= bound) {
+                return y;
+            }
+        }
+    }
+
+    private static double stirling(double x) {
+        double x2 = x * x;
+        return (13860.0 - (462.0 - (132.0 - (99.0 - 140.0 / x2) / x2) / x2) / x2) / x / 166320.0;
+    }
+}
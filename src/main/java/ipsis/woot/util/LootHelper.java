@@ -1,12 +1,11 @@
 package ipsis.woot.util;
 
 import ipsis.woot.Woot;
-import net.minecraft.core.registries.Registries;
+import ipsis.woot.loot.CompiledLootTable;
+import ipsis.woot.loot.LootSafety;
 import net.minecraft.resources.ResourceKey;
-import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.world.damagesource.DamageSource;
-import net.minecraft.world.entity.Entity;
+import net.minecraft.util.RandomSource;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.item.ItemStack;
@@ -17,8 +16,12 @@ import net.minecraft.world.level.storage.loot.parameters.LootContextParams;
 import net.minecraft.world.phys.Vec3;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Helper class for accessing mob loot tables and generating drops
@@ -26,6 +29,151 @@ import java.util.List;
  */
 public class LootHelper {
 
+    // Compiled form of each loot table, empty if the table cannot be compiled - server thread only
+    private static final Map<ResourceKey<LootTable>, Optional<CompiledLootTable>> COMPILED = new HashMap<>();
+
+    /**
+     * Loot table inputs resolved on the server thread
+     * The entity is the shared template from TemplateEntityCache and is only read
+     * The compiled table is set when it can stand in for the vanilla table
+     */
+    public record PreparedLoot(@Nonnull EntityType<?> entityType,
+                               @Nonnull ResourceKey<LootTable> lootTableKey,
+                               @Nonnull LootTable lootTable,
+                               @Nonnull LootParams lootParams,
+                               @Nonnull LivingEntity entity,
+                               @Nullable CompiledLootTable compiled) {
+    }
+
+    /**
+     * Forget the compiled loot tables (data pack reload, server stop)
+     */
+    public static void clearCompiledTables() {
+        COMPILED.clear();
+    }
+
+    /**
+     * Get the compiled form of a loot table
+     * Global loot modifiers run on every vanilla roll, so nothing is compiled while any are loaded
+     */
+    @Nullable
+    private static CompiledLootTable getCompiled(@Nonnull ServerLevel level,
+                                                 @Nonnull ResourceKey<LootTable> lootTableKey,
+                                                 @Nonnull LootTable lootTable) {
+        if (LootSafety.hasGlobalLootModifiers()) {
+            return null;
+        }
+        return COMPILED.computeIfAbsent(lootTableKey,
+            k -> Optional.ofNullable(CompiledLootTable.compile(level, lootTable))).orElse(null);
+    }
+
+    /**
+     * Resolve the loot table and build the loot context for a mob
+     * Must be called on the server thread
+     *
+     * @param level Server level
+     * @param entityType The type of entity to generate loot for
+     * @param lootingLevel Looting enchantment level (0-3)
+     * @return The prepared loot inputs, or null if the mob has no usable loot table
+     */
+    @Nullable
+    public static PreparedLoot prepareLoot(@Nonnull ServerLevel level,
+                                           @Nonnull EntityType<?> entityType,
+                                           int lootingLevel) {
+        // Reuse the level's template entity to get its loot table
+        LivingEntity livingEntity = TemplateEntityCache.get(level, entityType);
+        if (livingEntity == null) {
+            Woot.LOGGER.warn("No template entity for {}, cannot generate loot", entityType);
+            return null;
+        }
+
+        // Get the loot table location
+        ResourceKey<LootTable> lootTableKey = livingEntity.getLootTable();
+        if (lootTableKey == null) {
+            Woot.LOGGER.warn("Entity {} has no loot table, returning empty drops", entityType);
+            return null;
+        }
+
+        // Build loot context
+        LootParams.Builder builder = new LootParams.Builder(level)
+            .withParameter(LootContextParams.THIS_ENTITY, livingEntity)
+            .withParameter(LootContextParams.ORIGIN, Vec3.ZERO)
+            .withParameter(LootContextParams.DAMAGE_SOURCE, level.damageSources().generic());
+
+        // Add looting level if specified
+        if (lootingLevel > 0) {
+            builder.withLuck(lootingLevel);
+        }
+
+        LootParams lootParams = builder.create(LootContextParamSets.ENTITY);
+
+        // Get loot table
+        LootTable lootTable = level.getServer().reloadableRegistries().getLootTable(lootTableKey);
+        if (lootTable == null || lootTable == LootTable.EMPTY) {
+            Woot.LOGGER.warn("Entity {} has empty loot table, returning empty drops", entityType);
+            return null;
+        }
+
+        return new PreparedLoot(entityType, lootTableKey, lootTable, lootParams, livingEntity,
+            getCompiled(level, lootTableKey, lootTable));
+    }
+
+    /**
+     * Roll a prepared loot table for each mob
+     * Safe to call off the server thread for tables that LootSafety accepts
+     *
+     * @param prepared Prepared loot inputs
+     * @param count Number of mobs to simulate killing
+     * @param random Random source for the rolls, or null to use the level/table random
+     * @return List of item stacks dropped
+     */
+    @Nonnull
+    public static List<ItemStack> rollLoot(@Nonnull PreparedLoot prepared, int count, @Nullable RandomSource random) {
+        CompiledLootTable compiled = prepared.compiled();
+        if (compiled != null && random != null) {
+            long[] counts = new long[compiled.getItemCount()];
+            compiled.sample(random, prepared.lootParams().getLuck(), count, counts);
+            return compiled.toStacks(counts);
+        }
+
+        List<ItemStack> allDrops = new ArrayList<>();
+        for (List<ItemStack> drops : rollLootPerMob(prepared, count, random)) {
+            allDrops.addAll(drops);
+        }
+        return allDrops;
+    }
+
+    /**
+     * Roll a prepared loot table for each mob, keeping each mob's drops separate
+     *
+     * @param prepared Prepared loot inputs
+     * @param count Number of mobs to simulate killing
+     * @param random Random source for the rolls, or null to use the level/table random
+     * @return One list of item stacks per mob
+     */
+    @Nonnull
+    public static List<List<ItemStack>> rollLootPerMob(@Nonnull PreparedLoot prepared, int count, @Nullable RandomSource random) {
+        List<List<ItemStack>> perMob = new ArrayList<>(count);
+
+        CompiledLootTable compiled = prepared.compiled();
+        if (compiled != null && random != null) {
+            float luck = prepared.lootParams().getLuck();
+            for (int i = 0; i < count; i++) {
+                perMob.add(compiled.sampleStacks(random, luck));
+            }
+            return perMob;
+        }
+
+        for (int i = 0; i < count; i++) {
+            List<ItemStack> drops = random != null
+                ? prepared.lootTable().getRandomItems(prepared.lootParams(), random)
+                : prepared.lootTable().getRandomItems(prepared.lootParams());
+            perMob.add(drops);
+        }
+
+        return perMob;
+    }
+
     /**
      * Generate loot drops for a mob using its loot table
      * This simulates killing the mob and collecting its drops
@@ -44,60 +192,20 @@ public class LootHelper {
         List<ItemStack> allDrops = new ArrayList<>();
 
         try {
-            // Create a temporary entity to get its loot table
-            Entity entity = entityType.create(level);
-            if (entity == null) {
-                Woot.LOGGER.warn("Failed to create entity of type {}, cannot generate loot", entityType);
-                return allDrops;
-            }
-
-            if (!(entity instanceof LivingEntity livingEntity)) {
-                Woot.LOGGER.warn("Entity type {} is not a LivingEntity, cannot generate loot", entityType);
-                entity.discard();
-                return allDrops;
-            }
-
-            // Get the loot table location
-            ResourceKey<LootTable> lootTableKey = livingEntity.getLootTable();
-            if (lootTableKey == null) {
-                Woot.LOGGER.warn("Entity {} has no loot table, returning empty drops", entityType);
-                livingEntity.discard();
-                return allDrops;
-            }
-
-            // Build loot context
-            LootParams.Builder builder = new LootParams.Builder(level)
-                .withParameter(LootContextParams.THIS_ENTITY, livingEntity)
-                .withParameter(LootContextParams.ORIGIN, Vec3.ZERO)
-                .withParameter(LootContextParams.DAMAGE_SOURCE, level.damageSources().generic());
-
-            // Add looting level if specified
-            if (lootingLevel > 0) {
-                builder.withLuck(lootingLevel);
-            }
-
-            LootParams lootParams = builder.create(LootContextParamSets.ENTITY);
-
-            // Get loot table and generate drops for each mob
-            LootTable lootTable = level.getServer().reloadableRegistries().getLootTable(lootTableKey);
-            if (lootTable == null || lootTable == LootTable.EMPTY) {
-                Woot.LOGGER.warn("Entity {} has empty loot table, returning empty drops", entityType);
-                livingEntity.discard();
+            PreparedLoot prepared = prepareLoot(level, entityType, lootingLevel);
+            if (prepared == null) {
                 return allDrops;
             }
 
             for (int i = 0; i < count; i++) {
                 try {
-                    List<ItemStack> drops = lootTable.getRandomItems(lootParams);
+                    List<ItemStack> drops = prepared.lootTable().getRandomItems(prepared.lootParams());
                     allDrops.addAll(drops);
                 } catch (Exception e) {
                     Woot.LOGGER.error("Error generating loot for {} (iteration {}): {}", entityType, i, e.getMessage());
                 }
             }
 
-            // Clean up temporary entity
-            livingEntity.discard();
-
             Woot.LOGGER.debug("Generated {} item stacks from {} × {} mobs ({})",
                 allDrops.size(), count, entityType, entityType.getDescriptionId());
 
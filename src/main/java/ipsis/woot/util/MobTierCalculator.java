@@ -6,7 +6,6 @@ import ipsis.woot.recipes.SpawnRecipe;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.LivingEntity;
 
@@ -85,20 +84,13 @@ public class MobTierCalculator {
             }
 
             // 2. Calculate tier based on max health
-            Entity entity = entityType.create(level);
-            if (entity == null) {
-                Woot.LOGGER.warn("Failed to create entity of type {} for health check, defaulting to TIER_I", entityId);
-                return EnumMobFactoryTier.TIER_I;
-            }
-
-            if (!(entity instanceof LivingEntity livingEntity)) {
-                Woot.LOGGER.warn("Entity type {} is not a LivingEntity, defaulting to TIER_I", entityId);
-                entity.discard();
+            LivingEntity livingEntity = TemplateEntityCache.get(level, entityType);
+            if (livingEntity == null) {
+                Woot.LOGGER.warn("No living template entity for {} for health check, defaulting to TIER_I", entityId);
                 return EnumMobFactoryTier.TIER_I;
             }
 
             float maxHealth = livingEntity.getMaxHealth();
-            entity.discard();
 
             // Calculate tier based on health thresholds
             EnumMobFactoryTier tier;
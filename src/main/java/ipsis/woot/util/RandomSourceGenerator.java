@@ -0,0 +1,62 @@
+package ipsis.woot.util;
+
+import net.minecraft.util.RandomSource;
+
+import javax.annotation.Nonnull;
+import java.util.random.RandomGenerator;
+
+/**
+ * RandomGenerator view of a Minecraft RandomSource
+ *
+ * FactoryRolls only knows RandomGenerator so it can be shared with the simulator, which runs
+ * without Minecraft. Every draw is passed straight to the source, so seeded sources give the
+ * same rolls as before.
+ */
+public final class RandomSourceGenerator implements RandomGenerator {
+
+    private final RandomSource source;
+
+    private RandomSourceGenerator(@Nonnull RandomSource source) {
+        this.source = source;
+    }
+
+    @Nonnull
+    public static RandomGenerator of(@Nonnull RandomSource source) {
+        return new RandomSourceGenerator(source);
+    }
+
+    @Override
+    public long nextLong() {
+        return source.nextLong();
+    }
+
+    @Override
+    public int nextInt() {
+        return source.nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return source.nextInt(bound);
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return source.nextBoolean();
+    }
+
+    @Override
+    public float nextFloat() {
+        return source.nextFloat();
+    }
+
+    @Override
+    public double nextDouble() {
+        return source.nextDouble();
+    }
+
+    @Override
+    public double nextGaussian() {
+        return source.nextGaussian();
+    }
+}
@@ -0,0 +1,96 @@
+package ipsis.woot.util;
+
+import ipsis.woot.Woot;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.LivingEntity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Per-level cache of dummy entities used as loot context and for tier evaluation
+ * Each entity type is constructed once per level instead of on every spawn cycle.
+ *
+ * Template entities are never added to the level and must be treated as read-only.
+ * The cache is evicted when its level unloads or data packs are reloaded.
+ * Only accessed on the server thread.
+ */
+public class TemplateEntityCache {
+
+    private static final Map<ServerLevel, TemplateEntityCache> CACHES = new WeakHashMap<>();
+
+    private final Map<EntityType<?>, LivingEntity> templates = new HashMap<>();
+
+    // Types that could not be created or are not living entities
+    private final Set<EntityType<?>> unusable = new HashSet<>();
+
+    /**
+     * Get the template entity for a type, creating it on first use
+     *
+     * @return The template, or null if the type cannot be created as a LivingEntity
+     */
+    @Nullable
+    public static LivingEntity get(@Nonnull ServerLevel level, @Nonnull EntityType<?> entityType) {
+        return CACHES.computeIfAbsent(level, l -> new TemplateEntityCache()).getOrCreate(level, entityType);
+    }
+
+    /**
+     * Evict all templates for a level
+     */
+    public static void evict(@Nonnull ServerLevel level) {
+        TemplateEntityCache cache = CACHES.remove(level);
+        if (cache != null) {
+            cache.discardAll();
+        }
+    }
+
+    /**
+     * Evict all templates for every level
+     */
+    public static void clear() {
+        for (TemplateEntityCache cache : CACHES.values()) {
+            cache.discardAll();
+        }
+        CACHES.clear();
+    }
+
+    @Nullable
+    private LivingEntity getOrCreate(@Nonnull ServerLevel level, @Nonnull EntityType<?> entityType) {
+        LivingEntity template = templates.get(entityType);
+        if (template != null || unusable.contains(entityType)) {
+            return template;
+        }
+
+        Entity entity = entityType.create(level);
+        if (entity == null) {
+            Woot.LOGGER.warn("Failed to create template entity of type {}", entityType);
+            unusable.add(entityType);
+            return null;
+        }
+
+        if (!(entity instanceof LivingEntity livingEntity)) {
+            Woot.LOGGER.warn("Entity type {} is not a LivingEntity", entityType);
+            entity.discard();
+            unusable.add(entityType);
+            return null;
+        }
+
+        templates.put(entityType, livingEntity);
+        return livingEntity;
+    }
+
+    private void discardAll() {
+        for (LivingEntity template : templates.values()) {
+            template.discard();
+        }
+        templates.clear();
+        unusable.clear();
+    }
+}
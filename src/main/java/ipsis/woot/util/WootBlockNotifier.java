@@ -2,16 +2,20 @@ package ipsis.woot.util;
 
 import ipsis.woot.blockentities.FactoryHeartBlockEntity;
 import ipsis.woot.farmblocks.IFactoryGlueProvider;
+import ipsis.woot.farming.FactoryHeartRegistry;
+import ipsis.woot.farmstructure.FactoryOwnershipMap;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 
 /**
  * Utility class for efficiently notifying factory hearts when Woot blocks are placed or broken.
- * Uses a two-phase approach:
+ * Uses a three-phase approach:
+ * Phase 0: Look up the factory owning the position in the FactoryOwnershipMap (one map read)
  * Phase 1: Check adjacent blocks for connected factory blocks (fast, O(6))
- * Phase 2: Search for hearts in radius if no adjacent blocks found (fallback, O(n))
+ * Phase 2: Look up hearts in radius in the FactoryHeartRegistry if no adjacent blocks found (fallback)
  */
 public class WootBlockNotifier {
 
@@ -19,6 +23,22 @@ public class WootBlockNotifier {
     private static final int MAX_HORIZONTAL_RADIUS = 6;  // 11 / 2 = 5.5, rounded up
     private static final int MAX_VERTICAL_RADIUS = 4;    // 7 / 2 = 3.5, rounded up
 
+    // Nesting depth of runSuppressed, notifications are dropped while above zero (server thread only)
+    private static int suppressDepth = 0;
+
+    /**
+     * Run a batch of block changes without notifying any hearts.
+     * The caller is responsible for marking the affected heart dirty once afterwards.
+     */
+    public static void runSuppressed(Runnable changes) {
+        suppressDepth++;
+        try {
+            changes.run();
+        } finally {
+            suppressDepth--;
+        }
+    }
+
     /**
      * Notify nearby factory hearts that a Woot block was placed or broken.
      * This triggers structure revalidation.
@@ -27,7 +47,12 @@ public class WootBlockNotifier {
      * @param pos   The position where the block was placed/broken
      */
     public static void notifyNearbyHearts(Level level, BlockPos pos) {
-        if (level.isClientSide()) {
+        if (level.isClientSide() || suppressDepth > 0) {
+            return;
+        }
+
+        // Phase 0: The position is part of a formed factory, only its heart cares
+        if (notifyOwner(level, pos)) {
             return;
         }
 
@@ -40,6 +65,46 @@ public class WootBlockNotifier {
         searchForHearts(level, pos);
     }
 
+    /**
+     * Tell the unformed hearts around a factory that it released its blocks.
+     * A heart rejected for overlapping that factory gets no block change of its own when the
+     * overlap goes away, so it has to rescan now.
+     *
+     * @param heartPos The heart of the factory that released its claim
+     */
+    public static void notifyClaimReleased(ServerLevel level, BlockPos heartPos) {
+        FactoryHeartRegistry registry = FactoryHeartRegistry.find(level);
+        if (registry == null) {
+            return;
+        }
+
+        // Two footprints apart is as far as an overlapping heart can be
+        registry.forEachNear(heartPos, MAX_HORIZONTAL_RADIUS * 2, MAX_VERTICAL_RADIUS * 2, heart -> {
+            if (!heart.getBlockPos().equals(heartPos) && !heart.isFormed()) {
+                heart.markStructureDirty();
+            }
+        });
+    }
+
+    /**
+     * Phase 0: Notify the heart of the formed factory the position belongs to.
+     *
+     * @return true if the position has an owner and its heart was notified
+     */
+    private static boolean notifyOwner(Level level, BlockPos pos) {
+        if (!(level instanceof ServerLevel serverLevel)) {
+            return false;
+        }
+
+        FactoryOwnershipMap ownership = FactoryOwnershipMap.find(serverLevel);
+        BlockPos heartPos = ownership != null ? ownership.getOwner(pos) : null;
+        if (heartPos != null && level.getBlockEntity(heartPos) instanceof FactoryHeartBlockEntity heart) {
+            heart.markStructureDirty(pos);
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Phase 1: Check all 6 adjacent blocks for connected factory blocks.
      * If found, notify their heart.
@@ -56,7 +121,7 @@ public class WootBlockNotifier {
                 if (heartPos != null) {
                     BlockEntity heartBE = level.getBlockEntity(heartPos);
                     if (heartBE instanceof FactoryHeartBlockEntity heart) {
-                        heart.markStructureDirty();
+                        heart.markStructureDirty(pos);
                         return true; // Found connected structure
                     }
                 }
@@ -66,19 +131,19 @@ public class WootBlockNotifier {
     }
 
     /**
-     * Phase 2: Search for hearts in a radius around the changed position.
+     * Phase 2: Find the hearts in a radius around the changed position.
      * This is a fallback for when blocks are placed near an existing structure
      * but not yet connected.
      */
     private static void searchForHearts(Level level, BlockPos pos) {
-        BlockPos.betweenClosed(
-            pos.offset(-MAX_HORIZONTAL_RADIUS, -MAX_VERTICAL_RADIUS, -MAX_HORIZONTAL_RADIUS),
-            pos.offset(MAX_HORIZONTAL_RADIUS, MAX_VERTICAL_RADIUS, MAX_HORIZONTAL_RADIUS)
-        ).forEach(searchPos -> {
-            BlockEntity be = level.getBlockEntity(searchPos);
-            if (be instanceof FactoryHeartBlockEntity heart) {
-                heart.markStructureDirty();
-            }
-        });
+        if (!(level instanceof ServerLevel serverLevel)) {
+            return;
+        }
+
+        FactoryHeartRegistry registry = FactoryHeartRegistry.find(serverLevel);
+        if (registry != null) {
+            registry.forEachNear(pos, MAX_HORIZONTAL_RADIUS, MAX_VERTICAL_RADIUS,
+                heart -> heart.markStructureDirty(pos));
+        }
     }
 }
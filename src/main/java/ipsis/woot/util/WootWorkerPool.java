@@ -0,0 +1,73 @@
+package ipsis.woot.util;
+
+import ipsis.woot.Woot;
+import ipsis.woot.config.WootConfig;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small bounded pool of daemon threads for factory work that can leave the server thread
+ * Created on first use and shut down when the server stops
+ */
+public class WootWorkerPool {
+
+    // Work queued beyond this is run by the caller instead
+    private static final int QUEUE_CAPACITY = 256;
+
+    private static ThreadPoolExecutor executor = null;
+
+    /**
+     * Run a task on a worker thread
+     *
+     * @return false if the task was not accepted (pool disabled, full or stopped) - the caller must run it itself
+     */
+    public static synchronized boolean execute(@Nonnull Runnable task) {
+        ThreadPoolExecutor pool = getOrCreate();
+        if (pool == null) {
+            return false;
+        }
+
+        try {
+            pool.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Stop the pool, letting queued tasks finish
+     */
+    public static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    private static ThreadPoolExecutor getOrCreate() {
+        if (executor == null) {
+            int threads = WootConfig.WORKER_THREADS.get();
+            if (threads <= 0) {
+                return null;
+            }
+
+            AtomicInteger threadId = new AtomicInteger();
+            executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "Woot Worker #" + threadId.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            executor.allowCoreThreadTimeOut(true);
+            Woot.LOGGER.debug("Started Woot worker pool with {} threads", threads);
+        }
+        return executor;
+    }
+}
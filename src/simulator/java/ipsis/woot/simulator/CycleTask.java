@@ -0,0 +1,52 @@
+package ipsis.woot.simulator;
+
+import javax.annotation.Nonnull;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join task simulating a range of spawn cycles
+ *
+ * Ranges are split on fixed block boundaries and every block gets its own random source seeded
+ * from the run seed and the block index, so a seed gives the same results on any number of threads.
+ */
+public class CycleTask extends RecursiveTask<SimulationResult> {
+
+    // Cycles per block - large enough to amortise the task overhead
+    static final long BLOCK_CYCLES = 1L << 16;
+
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+
+    private final SimulatedFactory factory;
+    private final long seed;
+    private final long start;
+    private final long end;
+
+    public CycleTask(@Nonnull SimulatedFactory factory, long seed, long start, long end) {
+        this.factory = factory;
+        this.seed = seed;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    protected SimulationResult compute() {
+        long blocks = (end - start + BLOCK_CYCLES - 1) / BLOCK_CYCLES;
+        if (blocks > 1) {
+            long mid = start + (blocks / 2) * BLOCK_CYCLES;
+            CycleTask right = new CycleTask(factory, seed, mid, end);
+            right.fork();
+            SimulationResult left = new CycleTask(factory, seed, start, mid).compute();
+            return left.merge(right.join());
+        }
+
+        SplittableRandom random = new SplittableRandom(seed + (start / BLOCK_CYCLES) * SEED_STEP);
+        long[] counts = new long[factory.getItems().length];
+        SimulationResult result = new SimulationResult(counts.length);
+        for (long cycle = start; cycle < end; cycle++) {
+            factory.runCycle(random, counts);
+            result.add(counts);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,129 @@
+package ipsis.woot.simulator;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import ipsis.woot.farming.EnumFarmUpgrade;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Headless factory economics simulator
+ *
+ * Runs millions of spawn cycles of one factory setup without a world or game bootstrap and reports
+ * RF per item, items per hour and the per-cycle variance of every drop. The power and bonus drop
+ * rules are the factory heart's own, so a change to them shows up here as a change in the numbers.
+ *
+ * ./gradlew simulate -Pargs="tier=3 mass=3 looting=3 cycles=5000000"
+ *
+ * See SimulationConfig for the options.
+ */
+public class FactorySimulator {
+
+    private static final double TICKS_PER_HOUR = 20.0 * 60.0 * 60.0;
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    public static void main(String[] args) throws IOException {
+        SimulationConfig config;
+        try {
+            config = SimulationConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        MobLootModel model = MobLootModel.load(config.model());
+        SimulatedFactory factory = new SimulatedFactory(config, model);
+
+        long startNanos = System.nanoTime();
+        SimulationResult result = ForkJoinPool.commonPool().invoke(
+            new CycleTask(factory, config.seed(), 0, config.cycles()));
+        double seconds = (System.nanoTime() - startNanos) / 1.0e9;
+
+        JsonObject report = report(config, model, factory, result);
+        print(report, seconds);
+
+        if (config.out() != null) {
+            Path parent = config.out().toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(config.out(), GSON.toJson(report), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Nonnull
+    private static JsonObject report(@Nonnull SimulationConfig config, @Nonnull MobLootModel model,
+                                     @Nonnull SimulatedFactory factory, @Nonnull SimulationResult result) {
+        double cyclesPerHour = TICKS_PER_HOUR / factory.getCycleTicks();
+
+        JsonObject setup = new JsonObject();
+        setup.addProperty("tier", config.tier());
+        setup.addProperty("mob", model.mob());
+        for (EnumFarmUpgrade upgrade : EnumFarmUpgrade.values()) {
+            setup.addProperty(upgrade.getName(), config.getUpgradeTier(upgrade));
+        }
+        setup.addProperty("seed", config.seed());
+
+        JsonObject report = new JsonObject();
+        report.add("setup", setup);
+        report.addProperty("cycles", result.getCycles());
+        report.addProperty("mobsPerCycle", factory.getMobCount());
+        report.addProperty("powerPerTick", factory.getPowerPerTick());
+        report.addProperty("ticksPerCycle", factory.getCycleTicks());
+        report.addProperty("powerPerCycle", factory.getCyclePower());
+        report.addProperty("cyclesPerHour", cyclesPerHour);
+
+        JsonArray items = new JsonArray();
+        String[] names = factory.getItems();
+        for (int i = 0; i < names.length; i++) {
+            double mean = result.getMean(i);
+            double variance = result.getVariance(i);
+
+            JsonObject item = new JsonObject();
+            item.addProperty("item", names[i]);
+            item.addProperty("total", result.getTotal(i));
+            item.addProperty("meanPerCycle", mean);
+            item.addProperty("variancePerCycle", variance);
+            item.addProperty("itemsPerHour", mean * cyclesPerHour);
+            // Cycles are independent, so the hourly variance is the per-cycle variance times cycles per hour
+            item.addProperty("stddevPerHour", Math.sqrt(variance * cyclesPerHour));
+            if (mean > 0.0) {
+                item.addProperty("powerPerItem", factory.getCyclePower() / mean);
+            }
+            items.add(item);
+        }
+        report.add("items", items);
+        return report;
+    }
+
+    private static void print(@Nonnull JsonObject report, double seconds) {
+        System.out.printf(Locale.ROOT, "%,d cycles in %.2fs - %d mobs/cycle, %d RF/t, %d ticks/cycle, %,d RF/cycle%n",
+            report.get("cycles").getAsLong(), seconds,
+            report.get("mobsPerCycle").getAsInt(), report.get("powerPerTick").getAsInt(),
+            report.get("ticksPerCycle").getAsLong(), report.get("powerPerCycle").getAsLong());
+        System.out.printf(Locale.ROOT, "%-28s %12s %12s %12s %14s%n",
+            "item", "per cycle", "variance", "per hour", "RF per item");
+
+        for (var element : report.getAsJsonArray("items")) {
+            JsonObject item = element.getAsJsonObject();
+            if (item.get("total").getAsLong() == 0) {
+                continue;
+            }
+            System.out.printf(Locale.ROOT, "%-28s %12.4f %12.4f %12.1f %14.1f%n",
+                item.get("item").getAsString(),
+                item.get("meanPerCycle").getAsDouble(),
+                item.get("variancePerCycle").getAsDouble(),
+                item.get("itemsPerHour").getAsDouble(),
+                item.get("powerPerItem").getAsDouble());
+        }
+    }
+}
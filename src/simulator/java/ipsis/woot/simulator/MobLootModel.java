@@ -0,0 +1,139 @@
+package ipsis.woot.simulator;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Simplified loot table of one mob, the shape vanilla mob tables boil down to in a factory
+ * (no player kill, no fire, no special conditions)
+ *
+ * JSON:
+ * {
+ *   "mob": "minecraft:zombie",
+ *   "head": "minecraft:zombie_head",
+ *   "drops": [
+ *     { "item": "minecraft:rotten_flesh", "min": 0, "max": 2, "lootingBonus": 1.0 },
+ *     { "item": "minecraft:iron_ingot", "chance": 0.025, "lootingChance": 0.01 }
+ *   ]
+ * }
+ *
+ * chance defaults to 1, min and max to 1, lootingChance and lootingBonus to 0. head is optional,
+ * without it the Decapitate upgrade does nothing, as for mobs that have no head item.
+ */
+public record MobLootModel(@Nonnull String mob, @Nullable String head, @Nonnull List<Drop> drops) {
+
+    private static final Gson GSON = new Gson();
+    private static final String DEFAULT_MODEL = "/models/zombie.json";
+
+    /**
+     * One loot pool entry
+     *
+     * @param chance        Chance per mob the entry drops at all
+     * @param lootingChance Extra chance per looting level
+     * @param lootingBonus  Each looting level adds round(level * uniform(0, lootingBonus)) items
+     */
+    public record Drop(@Nonnull String item, double chance, double lootingChance, int min, int max, float lootingBonus) {
+
+        /**
+         * Items dropped by one mob
+         */
+        public int roll(@Nonnull RandomGenerator random, int looting) {
+            if (random.nextDouble() >= chance + lootingChance * looting) {
+                return 0;
+            }
+            int count = min + (max > min ? random.nextInt(max - min + 1) : 0);
+            if (looting > 0 && lootingBonus > 0.0f) {
+                count += Math.round(looting * random.nextFloat() * lootingBonus);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Item names of the drops, in report order
+     */
+    @Nonnull
+    public String[] getItems() {
+        String[] items = new String[drops.size()];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = drops.get(i).item();
+        }
+        return items;
+    }
+
+    /**
+     * Load a model, the built-in zombie model if no path is given
+     */
+    @Nonnull
+    public static MobLootModel load(@Nullable Path path) throws IOException {
+        if (path != null) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                return parse(reader, path.toString());
+            }
+        }
+
+        InputStream stream = MobLootModel.class.getResourceAsStream(DEFAULT_MODEL);
+        if (stream == null) {
+            throw new IOException("Missing built-in model " + DEFAULT_MODEL);
+        }
+        try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return parse(reader, DEFAULT_MODEL);
+        }
+    }
+
+    @Nonnull
+    private static MobLootModel parse(@Nonnull Reader reader, @Nonnull String source) throws IOException {
+        Json json;
+        try {
+            json = GSON.fromJson(reader, Json.class);
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid loot model " + source + ": " + e.getMessage(), e);
+        }
+        if (json == null || json.mob == null || json.drops == null) {
+            throw new IOException("Loot model " + source + " needs a mob and drops");
+        }
+
+        List<Drop> drops = json.drops.stream()
+            .map(drop -> new Drop(drop.item,
+                drop.chance != null ? drop.chance : 1.0,
+                drop.lootingChance != null ? drop.lootingChance : 0.0,
+                drop.min != null ? drop.min : 1,
+                drop.max != null ? drop.max : (drop.min != null ? drop.min : 1),
+                drop.lootingBonus != null ? drop.lootingBonus : 0.0f))
+            .toList();
+        for (Drop drop : drops) {
+            if (drop.item() == null || drop.min() < 0 || drop.max() < drop.min()) {
+                throw new IOException("Invalid drop in loot model " + source + ": " + drop);
+            }
+        }
+        return new MobLootModel(json.mob, json.head, drops);
+    }
+
+    // Gson binding, boxed so missing fields can be told apart from zero
+    private static class Json {
+        String mob;
+        String head;
+        List<DropJson> drops;
+    }
+
+    private static class DropJson {
+        String item;
+        Double chance;
+        Double lootingChance;
+        Integer min;
+        Integer max;
+        Float lootingBonus;
+    }
+}
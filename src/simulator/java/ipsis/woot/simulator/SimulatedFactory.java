@@ -0,0 +1,130 @@
+package ipsis.woot.simulator;
+
+import ipsis.woot.farming.EnumFarmUpgrade;
+import ipsis.woot.farming.FactoryRules;
+import ipsis.woot.power.PowerRecipe;
+import ipsis.woot.util.FactoryRolls;
+
+import javax.annotation.Nonnull;
+import java.util.random.RandomGenerator;
+
+/**
+ * A factory reduced to its spawn cycle economics
+ *
+ * The power and bonus drop numbers come from the same PowerRecipe, EnumFarmUpgrade, FactoryRules
+ * and FactoryRolls code the factory heart runs, only the mob loot is modelled.
+ */
+public class SimulatedFactory {
+
+    private static final String[] BONUS_ITEMS = {
+        "woot:xpshard", "woot:shard_tier_ii", "woot:shard_tier_iii", "woot:shard_tier_iv"
+    };
+
+    private final SimulationConfig config;
+    private final MobLootModel model;
+    private final String[] items;
+
+    private final PowerRecipe recipe;
+    private final int powerPerTick;
+    private final long cycleTicks;
+    private final int mobCount;
+    private final int looting;
+    private final int xpShards;
+    private final float decapitateChance;
+
+    // Slots in the per-cycle counts array
+    private final int headSlot;
+    private final int bonusSlot;
+
+    public SimulatedFactory(@Nonnull SimulationConfig config, @Nonnull MobLootModel model) {
+        this.config = config;
+        this.model = model;
+
+        int spawnTicks = EnumFarmUpgrade.RATE.getSpawnRateTicks(
+            config.getUpgradeTier(EnumFarmUpgrade.RATE), FactoryRules.BASE_SPAWN_TICKS);
+        recipe = PowerRecipe.forTier(config.tier(), spawnTicks);
+
+        int upgradePowerCost = 0;
+        if (config.upgradePowerCosts()) {
+            for (EnumFarmUpgrade upgrade : EnumFarmUpgrade.values()) {
+                upgradePowerCost += upgrade.getPowerCostPerTick(config.getUpgradeTier(upgrade));
+            }
+        }
+        float efficiency = EnumFarmUpgrade.EFFICIENCY.getEfficiencyMultiplier(config.getUpgradeTier(EnumFarmUpgrade.EFFICIENCY));
+        powerPerTick = FactoryRules.getPowerPerTick(recipe, efficiency, upgradePowerCost);
+        cycleTicks = FactoryRules.getCycleTicks(recipe, powerPerTick);
+
+        mobCount = EnumFarmUpgrade.MASS.getMassCount(config.getUpgradeTier(EnumFarmUpgrade.MASS));
+        looting = EnumFarmUpgrade.LOOTING.getLootingLevel(config.getUpgradeTier(EnumFarmUpgrade.LOOTING));
+        xpShards = FactoryRules.getXPShardCount(config.xpBasePerMob(), mobCount,
+            EnumFarmUpgrade.XP.getXPMultiplier(config.getUpgradeTier(EnumFarmUpgrade.XP)));
+        decapitateChance = model.head() != null
+            ? EnumFarmUpgrade.DECAPITATE.getDecapitateChance(config.getUpgradeTier(EnumFarmUpgrade.DECAPITATE))
+            : 0.0f;
+
+        String[] drops = model.getItems();
+        headSlot = drops.length;
+        bonusSlot = headSlot + 1;
+        items = new String[bonusSlot + BONUS_ITEMS.length];
+        System.arraycopy(drops, 0, items, 0, drops.length);
+        items[headSlot] = model.head() != null ? model.head() : "head";
+        System.arraycopy(BONUS_ITEMS, 0, items, bonusSlot, BONUS_ITEMS.length);
+    }
+
+    /**
+     * Item names of the count slots
+     */
+    @Nonnull
+    public String[] getItems() {
+        return items;
+    }
+
+    public int getPowerPerTick() {
+        return powerPerTick;
+    }
+
+    public long getCycleTicks() {
+        return cycleTicks;
+    }
+
+    /**
+     * RF paid per cycle - the recipe total, as settled by the heart
+     */
+    public long getCyclePower() {
+        return recipe.getTotalPower();
+    }
+
+    public int getMobCount() {
+        return mobCount;
+    }
+
+    /**
+     * Run one spawn cycle
+     *
+     * @param counts Overwritten with the items dropped, one slot per getItems() entry
+     */
+    public void runCycle(@Nonnull RandomGenerator random, @Nonnull long[] counts) {
+        for (int i = 0; i < headSlot; i++) {
+            MobLootModel.Drop drop = model.drops().get(i);
+            long count = 0;
+            for (int mob = 0; mob < mobCount; mob++) {
+                count += drop.roll(random, looting);
+            }
+            counts[i] = count;
+        }
+
+        counts[headSlot] = FactoryRolls.binomial(random, mobCount, decapitateChance);
+
+        counts[bonusSlot] = xpShards;
+        counts[bonusSlot + 1] = rollShard(random, 2, config.t2Chance());
+        counts[bonusSlot + 2] = rollShard(random, 3, config.t3Chance());
+        counts[bonusSlot + 3] = rollShard(random, 4, config.t4Chance());
+    }
+
+    private int rollShard(@Nonnull RandomGenerator random, int shardTier, int chance) {
+        if (!config.shards() || !FactoryRules.canDropShard(config.tier(), shardTier)) {
+            return 0;
+        }
+        return FactoryRolls.percent(random, chance) ? 1 : 0;
+    }
+}
@@ -0,0 +1,107 @@
+package ipsis.woot.simulator;
+
+import ipsis.woot.farming.EnumFarmUpgrade;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Factory setup and run settings for one simulation
+ *
+ * Built from key=value arguments, the defaults match the default server config:
+ *   tier=1..4                   factory tier
+ *   looting|rate|mass|efficiency|xp|decapitate=0..3   upgrade tiers
+ *   cycles=N                    spawn cycles to simulate
+ *   seed=N                      random seed, the same seed always gives the same results
+ *   model=path                  mob loot model JSON (default: built-in zombie)
+ *   out=path                    also write the report as JSON
+ *   shards=true|false           tier shard drops (allow_shard_recipes)
+ *   t2=, t3=, t4=               tier shard drop chances in percent
+ *   xpBase=N                    XP shards per mob
+ *   upgradePowerCosts=true|false
+ */
+public record SimulationConfig(int tier, @Nonnull Map<EnumFarmUpgrade, Integer> upgrades, long cycles, long seed,
+                               @Nullable Path model, @Nullable Path out, boolean shards,
+                               int t2Chance, int t3Chance, int t4Chance, int xpBasePerMob,
+                               boolean upgradePowerCosts) {
+
+    @Nonnull
+    public static SimulationConfig parse(@Nonnull String[] args) {
+        int tier = 1;
+        Map<EnumFarmUpgrade, Integer> upgrades = new EnumMap<>(EnumFarmUpgrade.class);
+        long cycles = 1_000_000;
+        long seed = 0;
+        Path model = null;
+        Path out = null;
+        boolean shards = true;
+        int t2 = 15;
+        int t3 = 8;
+        int t4 = 5;
+        int xpBase = 5;
+        boolean upgradePowerCosts = true;
+
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            String key = arg.substring(0, split);
+            String value = arg.substring(split + 1);
+
+            EnumFarmUpgrade upgrade = getUpgrade(key);
+            if (upgrade != null) {
+                int upgradeTier = range(key, Integer.parseInt(value), 0, upgrade.getMaxTier());
+                if (upgradeTier > 0) {
+                    upgrades.put(upgrade, upgradeTier);
+                }
+                continue;
+            }
+
+            switch (key) {
+                case "tier" -> tier = range(key, Integer.parseInt(value), 1, 4);
+                case "cycles" -> cycles = Math.max(1, Long.parseLong(value));
+                case "seed" -> seed = Long.parseLong(value);
+                case "model" -> model = Paths.get(value);
+                case "out" -> out = Paths.get(value);
+                case "shards" -> shards = Boolean.parseBoolean(value);
+                case "t2" -> t2 = range(key, Integer.parseInt(value), 0, 100);
+                case "t3" -> t3 = range(key, Integer.parseInt(value), 0, 100);
+                case "t4" -> t4 = range(key, Integer.parseInt(value), 0, 100);
+                case "xpBase" -> xpBase = range(key, Integer.parseInt(value), 1, 100);
+                case "upgradePowerCosts" -> upgradePowerCosts = Boolean.parseBoolean(value);
+                default -> throw new IllegalArgumentException("Unknown option " + key);
+            }
+        }
+
+        return new SimulationConfig(tier, upgrades, cycles, seed, model, out, shards, t2, t3, t4, xpBase, upgradePowerCosts);
+    }
+
+    /**
+     * Installed tier of an upgrade, 0 if not installed
+     */
+    public int getUpgradeTier(@Nonnull EnumFarmUpgrade upgrade) {
+        return upgrades.getOrDefault(upgrade, 0);
+    }
+
+    @Nullable
+    private static EnumFarmUpgrade getUpgrade(@Nonnull String key) {
+        for (EnumFarmUpgrade upgrade : EnumFarmUpgrade.values()) {
+            if (upgrade.getName().equals(key.toLowerCase(Locale.ROOT))) {
+                return upgrade;
+            }
+        }
+        return null;
+    }
+
+    private static int range(@Nonnull String key, int value, int min, int max) {
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(key + " must be between " + min + " and " + max);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,70 @@
+package ipsis.woot.simulator;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Per-item count sums over a run of spawn cycles
+ * Sums and sums of squares are kept exact, so results merge in any order without drift
+ */
+public class SimulationResult {
+
+    private long cycles;
+    private final long[] sum;
+    private final long[] sumSquares;
+
+    public SimulationResult(int items) {
+        sum = new long[items];
+        sumSquares = new long[items];
+    }
+
+    /**
+     * Add the item counts of one cycle
+     */
+    public void add(@Nonnull long[] counts) {
+        cycles++;
+        for (int i = 0; i < sum.length; i++) {
+            long count = counts[i];
+            sum[i] += count;
+            sumSquares[i] += count * count;
+        }
+    }
+
+    /**
+     * Add the cycles of another result
+     */
+    @Nonnull
+    public SimulationResult merge(@Nonnull SimulationResult other) {
+        cycles += other.cycles;
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] += other.sum[i];
+            sumSquares[i] += other.sumSquares[i];
+        }
+        return this;
+    }
+
+    public long getCycles() {
+        return cycles;
+    }
+
+    public long getTotal(int item) {
+        return sum[item];
+    }
+
+    /**
+     * Mean count of an item per cycle
+     */
+    public double getMean(int item) {
+        return cycles > 0 ? sum[item] / (double) cycles : 0.0;
+    }
+
+    /**
+     * Sample variance of the count of an item per cycle
+     */
+    public double getVariance(int item) {
+        if (cycles < 2) {
+            return 0.0;
+        }
+        double mean = getMean(item);
+        return Math.max(0.0, (sumSquares[item] - cycles * mean * mean) / (cycles - 1));
+    }
+}